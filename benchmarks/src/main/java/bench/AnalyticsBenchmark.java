@@ -0,0 +1,84 @@
+package bench;
+
+import algorithms.DFS;
+import algorithms.DirectedAnalytics;
+import algorithms.FriendRecommendation;
+import algorithms.ShortestPaths;
+import algorithms.SocialReachability;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-graph analytics and the applied social queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class AnalyticsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Queries {
+        List<SocialReachability.Query> batch;
+
+        @Setup(Level.Trial)
+        public void setUp(GraphState s) {
+            Random rnd = new Random(7);
+            batch = new ArrayList<>();
+            for (int i = 0; i < 256; i++) {
+                batch.add(new SocialReachability.Query(String.valueOf(rnd.nextInt(s.edges.n)),
+                        String.valueOf(rnd.nextInt(s.edges.n))));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<List<String>> componentsGraph(GraphState s) {
+        return DFS.connectedComponentsUndirected(s.graph);
+    }
+
+    @Benchmark
+    public List<List<String>> componentsCompact(GraphState s) {
+        return DFS.connectedComponentsUndirected(s.compact);
+    }
+
+    @Benchmark
+    public boolean cycleDetection(GraphState s) {
+        return DFS.hasCycleUndirected(s.graph);
+    }
+
+    // generated graphs are undirected: every edge is a 2-cycle, SCCs == components
+    @Benchmark
+    public List<List<String>> stronglyConnected(GraphState s) {
+        return DirectedAnalytics.stronglyConnectedComponents(s.compact);
+    }
+
+    @Benchmark
+    public SocialReachability.Result socialSingle(GraphState s) {
+        return SocialReachability.run(s.graph, s.start, s.target);
+    }
+
+    // 256 queries per invocation: compare with 256 x socialSingle
+    @Benchmark
+    public List<SocialReachability.Result> socialBatch256(GraphState s, Queries q) {
+        return SocialReachability.runBatch(s.compact, q.batch);
+    }
+
+    // top-10 by common neighbors for the 256 query sources
+    @Benchmark
+    public List<List<FriendRecommendation.Recommendation>> recommendBatch256(GraphState s, Queries q) {
+        List<String> sources = new ArrayList<>(q.batch.size());
+        for (SocialReachability.Query query : q.batch) sources.add(query.source);
+        return FriendRecommendation.topKBatch(s.compact, sources, 10, FriendRecommendation.Score.COMMON_NEIGHBORS, 0);
+    }
+
+    @Benchmark
+    public ShortestPaths.Result dijkstra(GraphState s) {
+        return ShortestPaths.dijkstra(s.graph, s.start);
+    }
+}
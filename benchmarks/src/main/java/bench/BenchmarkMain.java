@@ -0,0 +1,34 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH entry point with project defaults: gc (allocation) profiler always on and
+ * results written as JSON to jmh-result.json unless -rf / -rff are given.
+ * Every other standard JMH option works as usual, e.g.
+ *   java -jar benchmarks/target/benchmarks.jar Traversal -p vertices=100000 -rf csv -rff bfs.csv
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder opts = new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class);
+        if (!cli.getResultFormat().hasValue()) opts.resultFormat(ResultFormatType.JSON);
+        if (!cli.getResult().hasValue()) {
+            String ext = cli.getResultFormat().hasValue()
+                    ? cli.getResultFormat().get().toString().toLowerCase() : "json";
+            opts.result("jmh-result." + ext);
+        }
+        new Runner(opts.build()).run();
+    }
+}
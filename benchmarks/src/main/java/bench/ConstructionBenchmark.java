@@ -0,0 +1,43 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the in-memory representations from an edge list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ConstructionBenchmark {
+
+    @Benchmark
+    public Graph graphAddEdge(GraphState s) {
+        return s.edges.toGraph();
+    }
+
+    @Benchmark
+    public Graph graphBuilder(GraphState s) {
+        return s.edges.toGraphBulk(1);
+    }
+
+    @Benchmark
+    public Graph graphBuilderParallel(GraphState s) {
+        return s.edges.toGraphBulk(0);
+    }
+
+    @Benchmark
+    public CompactGraph compactFromArcs(GraphState s) {
+        return s.edges.toCompact();
+    }
+
+    @Benchmark
+    public CompactGraph freezeGraph(GraphState s) {
+        return s.graph.freeze();
+    }
+}
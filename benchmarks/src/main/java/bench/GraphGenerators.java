@@ -0,0 +1,174 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.GraphType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Deterministic (seeded) undirected test graphs for the benchmarks.
+ * Vertices are 0..n-1, edges are kept as int pairs so every representation can be built from them.
+ */
+public final class GraphGenerators {
+
+    public enum Model {
+        ER,         // Erdős–Rényi G(n, m): uniform random pairs
+        POWER_LAW,  // Barabási–Albert preferential attachment (heavy-tailed degrees)
+        GRID        // sqrt(n) x sqrt(n) 4-neighbour grid (long shortest paths, deep DFS)
+    }
+
+    public static final class EdgeList {
+        public final int n;
+        public final int[] src;
+        public final int[] dst;
+
+        EdgeList(int n, int[] src, int[] dst) {
+            this.n = n;
+            this.src = src;
+            this.dst = dst;
+        }
+
+        public int size() {
+            return src.length;
+        }
+
+        public Graph toGraph() {
+            Graph g = new Graph(GraphType.UNDIRECTED, false);
+            for (int i = 0; i < n; i++) g.addVertex(String.valueOf(i));
+            for (int i = 0; i < src.length; i++) g.addEdge(String.valueOf(src[i]), String.valueOf(dst[i]));
+            return g;
+        }
+
+        /**
+         * Same graph as toGraph(), built with one sort through GraphBuilder.
+         */
+        public Graph toGraphBulk(int threads) {
+            GraphBuilder b = new GraphBuilder(GraphType.UNDIRECTED, false);
+            for (int i = 0; i < n; i++) b.addVertex(String.valueOf(i)); // builder id == i
+            return b.addEdges(src, dst, null, src.length).build(threads);
+        }
+
+        public CompactGraph toCompact() {
+            String[] names = new String[n];
+            for (int i = 0; i < n; i++) names[i] = String.valueOf(i);
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(i -> names[i]));
+            int[] rank = new int[n];
+            String[] sorted = new String[n];
+            for (int i = 0; i < n; i++) {
+                rank[order[i]] = i;
+                sorted[i] = names[order[i]];
+            }
+            int[] s = new int[src.length];
+            int[] d = new int[src.length];
+            for (int i = 0; i < src.length; i++) {
+                s[i] = rank[src[i]];
+                d[i] = rank[dst[i]];
+            }
+            return CompactGraph.fromArcs(false, false, sorted, s, d, null, s.length);
+        }
+
+        /**
+         * GraphIO edge-list text format.
+         */
+        public Path writeText(Path file) throws IOException {
+            try (Writer w = Files.newBufferedWriter(file)) {
+                w.write(n + " " + src.length + " 0 0\n");
+                for (int i = 0; i < src.length; i++) w.write(src[i] + " " + dst[i] + "\n");
+            }
+            return file;
+        }
+    }
+
+    private GraphGenerators() {
+    }
+
+    /**
+     * avgDegree = 2m / n (ignored by GRID, whose degree is ~4).
+     */
+    public static EdgeList generate(Model model, int n, int avgDegree, long seed) {
+        switch (model) {
+            case ER:
+                return erdosRenyi(n, (long) n * avgDegree / 2, seed);
+            case POWER_LAW:
+                return barabasiAlbert(n, Math.max(1, avgDegree / 2), seed);
+            case GRID:
+                return grid((int) Math.max(1, Math.round(Math.sqrt(n))));
+            default:
+                throw new IllegalArgumentException("Unknown model: " + model);
+        }
+    }
+
+    public static EdgeList erdosRenyi(int n, long m, long seed) {
+        Random rnd = new Random(seed);
+        Set<Long> used = new HashSet<>();
+        int[] src = new int[(int) m];
+        int[] dst = new int[(int) m];
+        int k = 0;
+        while (k < m) {
+            int u = rnd.nextInt(n), v = rnd.nextInt(n);
+            if (u == v) continue;
+            long key = ((long) Math.min(u, v) << 32) | Math.max(u, v);
+            if (used.add(key)) {
+                src[k] = u;
+                dst[k] = v;
+                k++;
+            }
+        }
+        return new EdgeList(n, src, dst);
+    }
+
+    // every new vertex attaches to mPerVertex endpoints chosen proportionally to degree
+    public static EdgeList barabasiAlbert(int n, int mPerVertex, long seed) {
+        Random rnd = new Random(seed);
+        int cap = (int) Math.min(Integer.MAX_VALUE - 8, (long) n * mPerVertex);
+        int[] src = new int[cap];
+        int[] dst = new int[cap];
+        int[] endpoints = new int[cap * 2 + 2];
+        int e = 0, ends = 0;
+
+        endpoints[ends++] = 0; // seed vertex
+        for (int v = 1; v < n; v++) {
+            int links = Math.min(v, mPerVertex);
+            Set<Integer> chosen = new HashSet<>();
+            while (chosen.size() < links) chosen.add(endpoints[rnd.nextInt(ends)]);
+            for (int u : chosen) {
+                src[e] = v;
+                dst[e] = u;
+                e++;
+                endpoints[ends++] = u;
+                endpoints[ends++] = v;
+            }
+        }
+        return new EdgeList(n, Arrays.copyOf(src, e), Arrays.copyOf(dst, e));
+    }
+
+    public static EdgeList grid(int side) {
+        int n = side * side;
+        int m = 2 * side * (side - 1);
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        int k = 0;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side) {
+                    src[k] = v;
+                    dst[k++] = v + 1;
+                }
+                if (r + 1 < side) {
+                    src[k] = v;
+                    dst[k++] = v + side;
+                }
+            }
+        }
+        return new EdgeList(n, src, dst);
+    }
+}
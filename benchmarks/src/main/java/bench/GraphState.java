@@ -0,0 +1,36 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Shared benchmark input: one graph per (size, density, model) combination.
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    @Param({"4", "16"})
+    public int avgDegree;
+
+    @Param({"ER", "POWER_LAW", "GRID"})
+    public GraphGenerators.Model model;
+
+    public GraphGenerators.EdgeList edges;
+    public Graph graph;
+    public CompactGraph compact;
+    public String start;
+    public String target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        edges = GraphGenerators.generate(model, vertices, avgDegree, 42L);
+        graph = edges.toGraph();
+        compact = graph.freeze();
+        start = "0";
+        target = String.valueOf(edges.n - 1); // far corner for GRID, a late (low-degree) vertex otherwise
+    }
+}
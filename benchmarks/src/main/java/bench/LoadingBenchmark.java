@@ -0,0 +1,67 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.Graph;
+import io.GraphIO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphIO loaders on the same edge list: text -> Graph, text -> CompactGraph,
+ * memory-mapped parser (1 thread / all threads) and binary snapshot reload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class LoadingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Files_ {
+        Path text;
+        Path snapshot;
+
+        @Setup(Level.Trial)
+        public void setUp(GraphState s) throws IOException {
+            text = s.edges.writeText(Files.createTempFile("bench-edges", ".txt"));
+            snapshot = Files.createTempFile("bench-graph", ".snap");
+            GraphIO.writeSnapshot(s.compact, snapshot.toString());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    @Benchmark
+    public Graph textToGraph(Files_ f) throws IOException {
+        return GraphIO.readEdgeListFromFile(f.text.toString());
+    }
+
+    @Benchmark
+    public CompactGraph textToCompact(Files_ f) throws IOException {
+        return GraphIO.readCompactEdgeListFromFile(f.text.toString());
+    }
+
+    @Benchmark
+    public CompactGraph mappedSingleThread(Files_ f) throws IOException {
+        return GraphIO.readEdgeListMapped(f.text.toString(), 1);
+    }
+
+    @Benchmark
+    public CompactGraph mappedAllThreads(Files_ f) throws IOException {
+        return GraphIO.readEdgeListMapped(f.text.toString(), Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public CompactGraph snapshot(Files_ f) throws IOException {
+        return GraphIO.readSnapshot(f.snapshot.toString());
+    }
+}
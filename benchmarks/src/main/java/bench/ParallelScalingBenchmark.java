@@ -0,0 +1,39 @@
+package bench;
+
+import algorithms.BFS;
+import algorithms.DFS;
+import algorithms.ShortestPaths;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel algorithms over 1..N threads; speedup = score(threads=1) / score(threads=N).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class ParallelScalingBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Benchmark
+    public BFS.Result parallelBfs(GraphState s) {
+        return BFS.runParallel(s.compact, s.start, threads, true);
+    }
+
+    @Benchmark
+    public List<List<String>> parallelComponents(GraphState s) {
+        return DFS.connectedComponentsParallel(s.compact, threads);
+    }
+
+    @Benchmark
+    public ShortestPaths.Result deltaStepping(GraphState s) {
+        return ShortestPaths.deltaStepping(s.compact, s.start, 0, threads);
+    }
+}
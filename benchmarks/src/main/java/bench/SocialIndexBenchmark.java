@@ -0,0 +1,69 @@
+package bench;
+
+import algorithms.ReachabilityIndex;
+import algorithms.SocialReachability;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 256 social queries answered by BFS, bit-parallel batch BFS and a prebuilt ReachabilityIndex.
+ * Power-law graphs only: landmark labels stay small when hubs cover most shortest paths, but grow
+ * to hundreds of entries per vertex on ER / grid graphs (minutes to build at 100k vertices).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class SocialIndexBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Social {
+        @Param({"10000", "100000"})
+        public int vertices;
+
+        @Param({"4", "16"})
+        public int avgDegree;
+
+        Graph graph;
+        ReachabilityIndex index;
+        List<SocialReachability.Query> batch;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            GraphGenerators.EdgeList edges = GraphGenerators.generate(GraphGenerators.Model.POWER_LAW, vertices, avgDegree, 42L);
+            graph = edges.toGraph();
+            index = ReachabilityIndex.build(graph, 1024, 0);
+            Random rnd = new Random(7);
+            batch = new ArrayList<>();
+            for (int i = 0; i < 256; i++) {
+                batch.add(new SocialReachability.Query(String.valueOf(rnd.nextInt(edges.n)),
+                        String.valueOf(rnd.nextInt(edges.n))));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SocialReachability.Result> bfs256(Social s) {
+        List<SocialReachability.Result> out = new ArrayList<>(s.batch.size());
+        for (SocialReachability.Query q : s.batch) out.add(SocialReachability.run(s.graph, q.source, q.target));
+        return out;
+    }
+
+    @Benchmark
+    public List<SocialReachability.Result> batch256(Social s) {
+        return SocialReachability.runBatch(s.graph, s.batch);
+    }
+
+    @Benchmark
+    public List<SocialReachability.Result> indexed256(Social s) {
+        List<SocialReachability.Result> out = new ArrayList<>(s.batch.size());
+        for (SocialReachability.Query q : s.batch) out.add(SocialReachability.run(s.graph, s.index, q.source, q.target));
+        return out;
+    }
+}
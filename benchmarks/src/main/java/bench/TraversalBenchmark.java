@@ -0,0 +1,125 @@
+package bench;
+
+import algorithms.BFS;
+import algorithms.DFS;
+import algorithms.ShortestPaths;
+import algorithms.SocialReachability;
+import algorithms.TraversalSpec;
+import graph.Graph;
+import graph.GraphBuilder;
+import graph.GraphType;
+import graph.NeighborVisitor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BFS/DFS variants from vertex "0". Run with the gc profiler (BenchmarkMain adds it)
+ * to compare allocation rates, e.g. neighbors() lists vs forEachNeighbor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class TraversalBenchmark {
+
+    @Benchmark
+    public BFS.Result bfsGraph(GraphState s) {
+        return BFS.run(s.graph, s.start);
+    }
+
+    @Benchmark
+    public BFS.Result bfsCompact(GraphState s) {
+        return BFS.run(s.compact, s.start);
+    }
+
+    @Benchmark
+    public List<String> shortestPathUnweighted(GraphState s) {
+        return BFS.shortestPathUnweighted(s.graph, s.start, s.target);
+    }
+
+    @Benchmark
+    public DFS.Result dfsRecursive(GraphState s) {
+        return DFS.recursive(s.graph, s.start);
+    }
+
+    @Benchmark
+    public DFS.Result dfsIterative(GraphState s) {
+        return DFS.iterative(s.graph, s.start);
+    }
+
+    @Benchmark
+    public DFS.Result dfsIterativeCompact(GraphState s) {
+        return DFS.iterative(s.compact, s.start);
+    }
+
+    // adjacency walk only: one list copy per vertex ...
+    @Benchmark
+    public void walkNeighborLists(GraphState s, Blackhole bh) {
+        for (String u : s.graph.vertices()) bh.consume(s.graph.neighbors(u));
+    }
+
+    // ... vs the visitor API
+    @Benchmark
+    public void walkForEachNeighbor(GraphState s, Blackhole bh) {
+        NeighborVisitor consume = v -> {
+            bh.consume(v);
+            return true;
+        };
+        for (String u : s.graph.vertices()) s.graph.forEachNeighbor(u, consume);
+    }
+
+    /**
+     * A path of n vertices: local queries touch a handful of them, so their time must not grow
+     * with n (per-call state sized by the graph shows up as a 100x gap between the two sizes).
+     */
+    @State(Scope.Thread)
+    public static class PathState {
+        @Param({"10000", "1000000"})
+        public int vertices;
+
+        Graph graph;
+        int next;
+        int added;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            GraphBuilder b = new GraphBuilder(GraphType.UNDIRECTED, false);
+            for (int i = 0; i + 1 < vertices; i++) b.addEdge(String.valueOf(i), String.valueOf(i + 1));
+            graph = b.build();
+        }
+
+        String source() {
+            next = (next + 7919) % (vertices - 4);
+            return String.valueOf(next);
+        }
+    }
+
+    @Benchmark
+    public SocialReachability.Result socialLocal(PathState p) {
+        String s = p.source();
+        return SocialReachability.run(p.graph, s, String.valueOf(Integer.parseInt(s) + 3));
+    }
+
+    // same, with a new vertex before every query (name table / id growth on the query path)
+    @Benchmark
+    public SocialReachability.Result socialLocalUnderChurn(PathState p) {
+        p.graph.addVertex("new" + p.added++);
+        String s = p.source();
+        return SocialReachability.run(p.graph, s, String.valueOf(Integer.parseInt(s) + 3));
+    }
+
+    @Benchmark
+    public Integer bfsDepth2Lookup(PathState p) {
+        return BFS.run(p.graph, p.source(), TraversalSpec.maxDepth(2)).distance.get("1");
+    }
+
+    @Benchmark
+    public List<String> aStarLocal(PathState p) {
+        String s = p.source();
+        return ShortestPaths.shortestPath(p.graph, s, String.valueOf(Integer.parseInt(s) + 3));
+    }
+}
@@ -1,11 +1,19 @@
 import algorithms.BFS;
 import algorithms.DFS;
+import algorithms.DirectedAnalytics;
+import algorithms.FriendRecommendation;
+import algorithms.ShortestPaths;
 import algorithms.SocialReachability;
+import algorithms.TraversalMetrics;
+import graph.CompactGraph;
 import graph.Graph;
 import io.GraphIO;
 
 import java.io.InputStreamReader;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
 public class Main {
 
@@ -17,16 +25,29 @@ public class Main {
      * 2) Edge-list from stdin:
      *    cat file.txt | java -cp out Main edge - [start] [target]
      *
+     * 3) Weighted shortest paths (Dijkstra, path start->target):
+     *    java -cp out Main sssp file.txt [start] [target]
+     *
+     * 4) Convert edge-list to a binary snapshot (fast reload via GraphIO.readSnapshot):
+     *    java -cp out Main convert file.txt graph.snap
+     *
+     * Any mode: add --metrics to dump traversal metrics (TraversalMetrics histograms) at the end.
+     *
      * Output:
      * - Graph stats
-     * - BFS order, distance, parent
+     * - BFS order, distance, parent (first 20 entries of each; distance to target)
      * - shortest path start->target
-     * - DFS recursive+iterative orders
-     * - connected components (if undirected)
-     * - cycle detection (if undirected)
-     * - Applied: Social reachability (dist<=2 + shortest path)
+     * - DFS recursive+iterative orders (first 20 vertices)
+     * - connected components (if undirected) / strongly connected components (if directed)
+     * - cycle detection (undirected: yes/no; directed: one cycle or a topological order)
+     * - Applied: Social reachability (dist<=2 + shortest path, undirected), top-5 friend recommendations
      */
     public static void main(String[] args) throws Exception {
+        boolean metrics = Arrays.asList(args).contains("--metrics");
+        if (metrics) {
+            args = Arrays.stream(args).filter(a -> !a.equals("--metrics")).toArray(String[]::new);
+            TraversalMetrics.enable();
+        }
         if (args.length < 2) {
             printUsage();
             return;
@@ -35,18 +56,25 @@ public class Main {
         String mode = args[0];
         String source = args[1];
 
-        if (!mode.equalsIgnoreCase("edge")) {
+        if (mode.equalsIgnoreCase("convert")) {
+            convert(args);
+            return;
+        }
+
+        if (!mode.equalsIgnoreCase("edge") && !mode.equalsIgnoreCase("sssp")) {
             System.out.println("Unsupported mode: " + mode);
             printUsage();
             return;
         }
 
+        long loadStart = System.nanoTime();
         Graph g;
         if (source.equals("-")) {
             g = GraphIO.readEdgeList(new InputStreamReader(System.in));
         } else {
             g = GraphIO.readEdgeListFromFile(source);
         }
+        TraversalMetrics.record("load_ns", System.nanoTime() - loadStart);
 
         String start = (args.length >= 3) ? args[2] : "0";
         String target = (args.length >= 4) ? args[3] : start;
@@ -60,11 +88,23 @@ public class Main {
         System.out.println("Directed = " + g.isDirected());
         System.out.println("Weighted = " + g.isWeighted());
 
+        if (mode.equalsIgnoreCase("sssp")) {
+            System.out.println("\n=== Weighted shortest paths (Dijkstra) ===");
+            var sp = ShortestPaths.dijkstra(g, start);
+            System.out.println("distance = " + preview(sp.distance));
+            System.out.println("parent   = " + preview(sp.parent));
+            System.out.println("Path " + start + " -> " + target + ": " + sp.pathTo(target)
+                    + (sp.distance.containsKey(target) ? " (weight " + sp.distance.get(target) + ")" : ""));
+            printMetrics();
+            return;
+        }
+
         System.out.println("\n=== BFS ===");
         var bfs = BFS.run(g, start);
-        System.out.println("BFS from " + start + ": order = " + bfs.order);
-        System.out.println("distance = " + bfs.distance);
-        System.out.println("parent   = " + bfs.parent);
+        System.out.println("BFS from " + start + ": order = " + preview(bfs.order));
+        System.out.println("distance = " + preview(bfs.distance));
+        System.out.println("parent   = " + preview(bfs.parent));
+        System.out.println("distance to " + target + " = " + bfs.distanceTo(target));
 
         System.out.println("\n=== Shortest path (unweighted) ===");
         System.out.println("Path " + start + " -> " + target + ": " + BFS.shortestPathUnweighted(g, start, target));
@@ -72,8 +112,8 @@ public class Main {
         System.out.println("\n=== DFS ===");
         var dfsRec = DFS.recursive(g, start);
         var dfsIt = DFS.iterative(g, start);
-        System.out.println("DFS recursive from " + start + ": " + dfsRec.order);
-        System.out.println("DFS iterative  from " + start + ": " + dfsIt.order);
+        System.out.println("DFS recursive from " + start + ": " + preview(dfsRec.order));
+        System.out.println("DFS iterative  from " + start + ": " + preview(dfsIt.order));
 
         if (!g.isDirected()) {
             System.out.println("\n=== Connected components (undirected) ===");
@@ -86,15 +126,74 @@ public class Main {
             var social = SocialReachability.run(g, start, target);
             System.out.println("Within distance <= 2 from " + start + ": " + social.withinDistance2);
             System.out.println("Shortest path " + start + "->" + target + ": " + social.shortestPathToTarget);
+            System.out.println("Recommended for " + start + " (mutual friends): "
+                    + FriendRecommendation.topK(g, start, 5, FriendRecommendation.Score.COMMON_NEIGHBORS));
         } else {
-            System.out.println("\nNOTE: components/cycle/social part configured for UNDIRECTED in this implementation.");
+            CompactGraph cg = g.freeze();
+
+            System.out.println("\n=== Strongly connected components (directed) ===");
+            var scc = DirectedAnalytics.stronglyConnectedComponents(cg);
+            System.out.println("Count: " + scc.size());
+            System.out.println(scc);
+
+            System.out.println("\n=== Cycle detection / topological order (directed) ===");
+            var cycle = DirectedAnalytics.findCycle(cg);
+            if (cycle.isEmpty()) {
+                System.out.println("Has cycle: false");
+                System.out.println("Topological order: " + DirectedAnalytics.topologicalOrder(cg));
+            } else {
+                System.out.println("Has cycle: true, e.g. " + cycle);
+            }
         }
+        printMetrics();
+    }
+
+    private static void printMetrics() {
+        TraversalMetrics m = TraversalMetrics.current();
+        if (m == null) return;
+        System.out.println("\n=== METRICS ===");
+        m.dump(System.out);
+    }
+
+    // Large results are views over the traversal arrays; print only the first page of them.
+    private static final int PREVIEW = 20;
+
+    private static String preview(List<String> list) {
+        if (list.size() <= PREVIEW) return list.toString();
+        return list.subList(0, PREVIEW) + " ... (" + (list.size() - PREVIEW) + " more)";
+    }
+
+    private static String preview(Map<String, ?> map) {
+        if (map.size() <= PREVIEW) return map.toString();
+        StringJoiner out = new StringJoiner(", ", "{", ", ... (" + (map.size() - PREVIEW) + " more)}");
+        map.entrySet().stream().limit(PREVIEW).forEach(e -> out.add(e.getKey() + "=" + e.getValue()));
+        return out.toString();
+    }
+
+    private static void convert(String[] args) throws Exception {
+        if (args.length < 3) {
+            printUsage();
+            return;
+        }
+        CompactGraph g = args[1].equals("-")
+                ? GraphIO.readCompactEdgeList(new InputStreamReader(System.in))
+                : GraphIO.readEdgeListMapped(args[1], Runtime.getRuntime().availableProcessors());
+        GraphIO.writeSnapshot(g, args[2]);
+
+        System.out.println("Snapshot written: " + args[2]);
+        System.out.println("V = " + g.vertexCount());
+        System.out.println("E(logical) = " + g.edgeCountLogical());
+        System.out.println("Directed = " + g.isDirected());
+        System.out.println("Weighted = " + g.isWeighted());
     }
 
     private static void printUsage() {
         System.out.println("Usage:");
         System.out.println("  java -cp out Main edge <file> [start] [target]");
         System.out.println("  cat <file> | java -cp out Main edge - [start] [target]");
+        System.out.println("  java -cp out Main sssp <file|-> [start] [target]");
+        System.out.println("  java -cp out Main convert <file|-> <snapshot>");
+        System.out.println("  add --metrics to any mode to print traversal metrics");
         System.out.println("\nEdge-list file format:");
         System.out.println("  n m directed(0/1) weighted(0/1)");
         System.out.println("  u v [w]");
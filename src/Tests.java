@@ -1,9 +1,19 @@
 import algorithms.BFS;
 import algorithms.DFS;
+import algorithms.FriendRecommendation;
+import algorithms.ReachabilityIndex;
+import algorithms.ShortestPaths;
 import algorithms.SocialReachability;
+import algorithms.TraversalMetrics;
+import algorithms.TraversalSpec;
+import graph.CompactGraph;
 import graph.Graph;
 import graph.GraphType;
 
+import io.GraphIO;
+
+import java.io.StringReader;
+import java.util.Arrays;
 import java.util.List;
 
 public class Tests {
@@ -12,7 +22,7 @@ public class Tests {
         if (!cond) throw new RuntimeException("TEST FAILED: " + msg);
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
 
         // 1) Empty graph
         Graph g0 = new Graph(GraphType.UNDIRECTED, false);
@@ -70,6 +80,970 @@ public class Tests {
         assertTrue(BFS.run(big, "0").distance.get(String.valueOf(n - 1)) == n - 1,
                 "Stress test BFS");
 
+        // 10) CompactGraph gives the same results as Graph
+        Graph g6 = new Graph(GraphType.UNDIRECTED, false);
+        for (String[] e : new String[][]{{"1", "10"}, {"1", "2"}, {"2", "3"}, {"10", "3"}, {"3", "4"}, {"5", "6"}}) {
+            g6.addEdge(e[0], e[1]);
+        }
+        CompactGraph c6 = g6.freeze();
+        assertTrue(c6.vertices().equals(g6.vertices()), "Compact vertex order");
+        assertTrue(c6.edgeCountStored() == g6.edgeCountStored(), "Compact edge count");
+        assertTrue(BFS.run(c6, "1").order.equals(BFS.run(g6, "1").order), "Compact BFS order");
+        assertTrue(BFS.run(c6, "1").parent.equals(BFS.run(g6, "1").parent), "Compact BFS parent");
+        assertTrue(DFS.recursive(c6, "1").order.equals(DFS.recursive(g6, "1").order), "Compact DFS recursive");
+        assertTrue(DFS.iterative(c6, "1").parent.equals(DFS.iterative(g6, "1").parent), "Compact DFS iterative");
+        assertTrue(DFS.connectedComponentsUndirected(c6).equals(DFS.connectedComponentsUndirected(g6)),
+                "Compact components");
+        assertTrue(DFS.hasCycleUndirected(c6) == DFS.hasCycleUndirected(g6), "Compact cycle");
+        assertTrue(Arrays.deepEquals(c6.toAdjMatrix(), g6.toAdjMatrix()), "Compact adjacency matrix");
+        assertTrue(SocialReachability.run(c6, "1", "4").shortestPathToTarget
+                        .equals(SocialReachability.run(g6, "1", "4").shortestPathToTarget),
+                "Compact social path");
+
+        // 11) CompactGraph straight from edge-list (duplicates: first weight wins)
+        String text = "3 4 1 1\n0 1 5\n# comment\n0 1 7\n1 2 3\n2 0 1\n";
+        CompactGraph c7 = GraphIO.readCompactEdgeList(new StringReader(text));
+        Graph g7 = GraphIO.readEdgeList(new StringReader(text));
+        assertTrue(Arrays.deepEquals(c7.toAdjMatrix(), g7.toAdjMatrix()), "Compact edge-list matrix");
+        assertTrue(c7.edgeCountStored() == g7.edgeCountStored(), "Compact edge-list count");
+        CompactGraph unsorted = GraphIO.readCompactEdgeList(new StringReader("3 2 1 1\n0 2 5\n0 1 7\n"));
+        int arc02 = unsorted.begin(unsorted.id("0")) + 1;
+        assertTrue(unsorted.name(unsorted.target(arc02)).equals("2") && unsorted.weight(arc02) == 5, "Compact weights follow sorted targets");
+        java.util.Random wr = new java.util.Random(11);
+        for (int directed = 0; directed <= 1; directed++) {
+            StringBuilder wt = new StringBuilder("30 400 " + directed + " 1\n");
+            for (int i = 0; i < 400; i++) {
+                wt.append(wr.nextInt(30)).append(' ').append(wr.nextInt(30)).append(' ').append(wr.nextInt(100)).append('\n');
+            }
+            CompactGraph direct = GraphIO.readCompactEdgeList(new StringReader(wt.toString()));
+            CompactGraph viaGraph = GraphIO.readEdgeList(new StringReader(wt.toString())).freeze();
+            boolean same = direct.edgeCountStored() == viaGraph.edgeCountStored();
+            for (int a = 0; same && a < direct.edgeCountStored(); a++) {
+                same = direct.target(a) == viaGraph.target(a) && direct.weight(a) == viaGraph.weight(a);
+            }
+            assertTrue(same, "Compact weighted loader: unsorted rows + duplicates keep the first weight");
+        }
+
+        // 12) Parallel BFS: same distances as BFS.run, deterministic parents
+        Graph g8 = new Graph(GraphType.DIRECTED, false);
+        java.util.Random rnd = new java.util.Random(7);
+        for (int i = 0; i < 2000; i++) {
+            g8.addEdge(String.valueOf(rnd.nextInt(500)), String.valueOf(rnd.nextInt(500)));
+        }
+        var seq = BFS.run(g8, "0");
+        var par1 = BFS.runParallel(g8, "0", 1, true);
+        var par4 = BFS.runParallel(g8, "0", 4, true);
+        assertTrue(par4.distance.equals(seq.distance), "Parallel BFS distance");
+        assertTrue(par1.parent.equals(par4.parent), "Parallel BFS deterministic parent");
+        assertTrue(BFS.runParallel(g6, "1", 3, false).distance.equals(BFS.run(g6, "1").distance),
+                "Parallel BFS undirected distance");
+
+        // 13) Memory-mapped loader == text loader (comments, CRLF, duplicates, extra lines ignored)
+        java.nio.file.Path tmp = java.nio.file.Files.createTempFile("edges", ".txt");
+        StringBuilder sb = new StringBuilder("# generated\r\n12 300 0 1\r\n");
+        for (int i = 0; i < 300; i++) {
+            if (i % 50 == 0) sb.append("# block ").append(i).append('\n');
+            sb.append(rnd.nextInt(15)).append("  ").append(rnd.nextInt(15)).append('\t')
+                    .append(rnd.nextInt(9) - 4).append("\r\n");
+        }
+        sb.append("not an edge\n");
+        java.nio.file.Files.writeString(tmp, sb.toString());
+        Graph slow = GraphIO.readEdgeListFromFile(tmp.toString());
+        for (int threads : new int[]{1, 3}) {
+            CompactGraph fast = GraphIO.readEdgeListMapped(tmp.toString(), threads);
+            assertTrue(fast.vertices().equals(slow.vertices()), "Mapped loader vertices");
+            assertTrue(Arrays.deepEquals(fast.toAdjMatrix(), slow.toAdjMatrix()), "Mapped loader matrix");
+        }
+        java.nio.file.Files.writeString(tmp, "3 2 0 0\n0 1\n");
+        try {
+            GraphIO.readEdgeListMapped(tmp.toString(), 2);
+            assertTrue(false, "Mapped loader missing edges");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().equals("Expected 2 edges, got 1"), "Mapped loader error message");
+        }
+        // huge ids (memory follows the vertex count), bad weights after the first m edges are ignored
+        for (String edges : new String[]{"2 1 0 0\n0 2147483647\n", "2 1 0 0\n0 1999999999\n7 10\n",
+                "2 1 0 1\n0 1 5\n0 1 x\n", "2 1 0 1\n0 1 5\n0 1 99999999999\n"}) {
+            java.nio.file.Files.writeString(tmp, edges);
+            Graph viaText = GraphIO.readEdgeListFromFile(tmp.toString());
+            CompactGraph viaMap = GraphIO.readEdgeListMapped(tmp.toString(), 2);
+            assertTrue(viaMap.vertices().equals(viaText.vertices()) && Arrays.deepEquals(viaMap.toAdjMatrix(), viaText.toAdjMatrix()),
+                    "Mapped loader == text loader: " + edges.replace('\n', '|'));
+        }
+        java.nio.file.Files.writeString(tmp, "2 2 0 1\n0 1 x\n0 1 5\n");
+        try {
+            GraphIO.readEdgeListMapped(tmp.toString(), 1);
+            assertTrue(false, "Mapped loader accepted a bad weight");
+        } catch (NumberFormatException ex) {
+            assertTrue(ex.getMessage().contains("\"x\""), "Mapped loader bad weight message");
+        }
+        java.nio.file.Files.delete(tmp);
+
+        // 14) Binary snapshot round trip (+ checksum check)
+        java.nio.file.Path snap = java.nio.file.Files.createTempFile("graph", ".snap");
+        CompactGraph c9 = slow.freeze();
+        GraphIO.writeSnapshot(c9, snap.toString());
+        CompactGraph back = GraphIO.readSnapshot(snap.toString());
+        assertTrue(back.vertices().equals(c9.vertices()), "Snapshot vertices");
+        assertTrue(back.isWeighted() && !back.isDirected(), "Snapshot flags");
+        assertTrue(Arrays.deepEquals(back.toAdjMatrix(), c9.toAdjMatrix()), "Snapshot matrix");
+        byte[] raw = java.nio.file.Files.readAllBytes(snap);
+        raw[raw.length - 12] ^= 1;
+        java.nio.file.Files.write(snap, raw);
+        try {
+            GraphIO.readSnapshot(snap.toString());
+            assertTrue(false, "Snapshot checksum not verified");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().startsWith("Snapshot checksum mismatch"), "Snapshot checksum");
+        }
+        // without the checksum, damaged structure is still rejected up front
+        GraphIO.writeSnapshot(c9, snap.toString());
+        byte[] good = java.nio.file.Files.readAllBytes(snap);
+        java.nio.ByteBuffer layout = java.nio.ByteBuffer.wrap(good);
+        int targetsAt = 28 + (int) layout.getLong(20) + 4 * (c9.vertexCount() + 1);
+        int[][] damage = {{28, -5}, {targetsAt, c9.vertexCount()}, {targetsAt - 8, c9.edgeCountStored() + 1}};
+        for (int[] d : damage) {
+            byte[] bad = good.clone();
+            java.nio.ByteBuffer.wrap(bad).putInt(d[0], d[1]);
+            java.nio.file.Files.write(snap, bad);
+            try {
+                GraphIO.readSnapshot(snap.toString(), false);
+                assertTrue(false, "Damaged snapshot accepted at byte " + d[0]);
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+        try {
+            CompactGraph.of(false, false, new String[]{"b", "a"}, new int[]{0, 0, 0}, new int[0], null);
+            assertTrue(false, "Unsorted CSR names accepted");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        java.nio.file.Files.delete(snap);
+
+        // 15) Batched social queries == run() per query (undirected and directed)
+        for (Graph gb : new Graph[]{g6, g8, slow}) {
+            List<SocialReachability.Query> qs = new java.util.ArrayList<>();
+            List<String> vs = gb.vertices();
+            for (int i = 0; i < 150; i++) {
+                qs.add(new SocialReachability.Query(vs.get(rnd.nextInt(vs.size())), vs.get(rnd.nextInt(vs.size()))));
+            }
+            qs.add(new SocialReachability.Query("missing", vs.get(0)));
+            var batch = SocialReachability.runBatch(gb, qs);
+            for (int i = 0; i < qs.size(); i++) {
+                var one = SocialReachability.run(gb, qs.get(i).source, qs.get(i).target);
+                assertTrue(batch.get(i).withinDistance2.equals(one.withinDistance2), "Batch social distance<=2");
+                assertTrue(batch.get(i).shortestPathToTarget.equals(one.shortestPathToTarget), "Batch social path");
+            }
+        }
+        // long paths: O(n) words per batch (no level per hop), short and long answers in one batch
+        Graph longPath = new Graph(GraphType.UNDIRECTED, false);
+        for (int i = 0; i + 1 < 20000; i++) longPath.addEdge("v" + i, "v" + (i + 1));
+        longPath.addEdge("v5", "w");
+        longPath.addEdge("w", "v9");
+        List<SocialReachability.Query> longQs = List.of(new SocialReachability.Query("v0", "v19999"),
+                new SocialReachability.Query("v3", "v12"), new SocialReachability.Query("v19999", "v7"),
+                new SocialReachability.Query("v100", "v100"), new SocialReachability.Query("v20", "v40"));
+        var longBatch = SocialReachability.runBatch(longPath, longQs);
+        for (int i = 0; i < longQs.size(); i++) {
+            var one = SocialReachability.run(longPath, longQs.get(i).source, longQs.get(i).target);
+            assertTrue(longBatch.get(i).withinDistance2.equals(one.withinDistance2), "Long batch distance<=2");
+            assertTrue(longBatch.get(i).shortestPathToTarget.equals(one.shortestPathToTarget), "Long batch path");
+        }
+        assertTrue(longBatch.get(0).shortestPathToTarget.size() == 19998, "Long batch path length");
+
+        // 16) Depth-bounded / early-terminating traversals
+        var bounded = BFS.run(big, "0", TraversalSpec.maxDepth(2));
+        assertTrue(bounded.order.equals(List.of("0", "1", "2")), "BFS maxDepth");
+        var untilT = BFS.run(big, "0", TraversalSpec.until("5"));
+        assertTrue(untilT.order.size() == 6 && untilT.distance.get("5") == 5, "BFS stop at target");
+        assertTrue(BFS.shortestPathUnweighted(big, "0", "999").size() == 1000, "Early-stop shortest path");
+        var dfsBudget = DFS.iterative(g6, "1", TraversalSpec.UNBOUNDED.withMaxVisited(3));
+        assertTrue(dfsBudget.order.equals(DFS.iterative(g6, "1").order.subList(0, 3)), "DFS maxVisited");
+        var dfsDepth = DFS.recursive(big, "0", TraversalSpec.maxDepth(4));
+        assertTrue(dfsDepth.order.size() == 5, "DFS maxDepth");
+        assertTrue(BFS.run(c6, "1", TraversalSpec.maxDepth(1)).order.equals(List.of("1", "10", "2")),
+                "Compact BFS maxDepth");
+
+        // 17) Bidirectional shortest path == BFS parent path (undirected + directed with incoming index)
+        Graph g9 = new Graph(GraphType.DIRECTED, false, true);
+        for (int i = 0; i < 1500; i++) {
+            g9.addEdge(String.valueOf(rnd.nextInt(400)), String.valueOf(rnd.nextInt(400)));
+        }
+        g9.removeVertex("7");
+        for (Graph gb : new Graph[]{g9, slow, big}) {
+            List<String> vs = gb.vertices();
+            for (int i = 0; i < 200; i++) {
+                String a = vs.get(rnd.nextInt(vs.size())), b = vs.get(rnd.nextInt(vs.size()));
+                var r = BFS.run(gb, a);
+                java.util.LinkedList<String> expected = new java.util.LinkedList<>();
+                for (String cur = r.distance.containsKey(b) ? b : null; cur != null; cur = r.parent.get(cur)) {
+                    expected.addFirst(cur);
+                }
+                assertTrue(BFS.shortestPathUnweighted(gb, a, b).equals(expected), "Bidirectional shortest path");
+            }
+        }
+
+        // 18) Weighted shortest paths: Dijkstra / A* / delta-stepping agree
+        Graph wg = new Graph(GraphType.DIRECTED, true);
+        for (int i = 0; i < 3000; i++) {
+            wg.addEdge(String.valueOf(rnd.nextInt(600)), String.valueOf(rnd.nextInt(600)), rnd.nextInt(20));
+        }
+        var dj = ShortestPaths.dijkstra(wg, "0");
+        for (int threads : new int[]{1, 4}) {
+            for (long delta : new long[]{0, 3, 1000}) {
+                assertTrue(ShortestPaths.deltaStepping(wg, "0", delta, threads).distance.equals(dj.distance),
+                        "Delta-stepping distances");
+            }
+        }
+        Graph zeroTri = new Graph(GraphType.UNDIRECTED, true); // zero-weight tie inside one bucket
+        zeroTri.addEdge("z", "a", 1);
+        zeroTri.addEdge("z", "b", 1);
+        zeroTri.addEdge("a", "b", 0);
+        var zt = ShortestPaths.deltaStepping(zeroTri, "z", 1, 2);
+        assertTrue(zt.pathTo("a").equals(List.of("z", "a")) && zt.pathTo("b").equals(List.of("z", "b")),
+                "Delta-stepping zero-weight ties keep a parent tree");
+        for (int threads : new int[]{1, 4}) {
+            for (long delta : new long[]{0, 3, 1000}) {
+                var ds = ShortestPaths.deltaStepping(wg, "0", delta, threads);
+                boolean tree = true;
+                for (String v : ds.distance.keySet()) {
+                    int steps = 0;
+                    for (String x = v; x != null && tree; x = ds.parent.get(x)) tree = ++steps <= ds.distance.size();
+                }
+                assertTrue(tree, "Delta-stepping parents are acyclic");
+            }
+        }
+        for (String t : List.of("1", "77", "599")) {
+            List<String> p = ShortestPaths.shortestPath(wg, "0", t);
+            assertTrue(p.equals(dj.pathTo(t)), "Point-to-point Dijkstra path");
+            long w = 0;
+            for (int i = 0; i + 1 < p.size(); i++) {
+                w += wg.toAdjMatrix()[wg.vertices().indexOf(p.get(i))][wg.vertices().indexOf(p.get(i + 1))];
+            }
+            assertTrue(p.isEmpty() || w == dj.distance.get(t), "Path weight == distance");
+        }
+        Graph grid = new Graph(GraphType.UNDIRECTED, true);
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                if (x < 9) grid.addEdge(x + "," + y, (x + 1) + "," + y, 1);
+                if (y < 9) grid.addEdge(x + "," + y, x + "," + (y + 1), 1);
+            }
+        }
+        ShortestPaths.Heuristic manhattan = v -> {
+            String[] xy = v.split(",");
+            return Math.abs(9 - Integer.parseInt(xy[0])) + Math.abs(9 - Integer.parseInt(xy[1]));
+        };
+        assertTrue(ShortestPaths.aStar(grid, "0,0", "9,9", manhattan).size() == 19, "A* grid path");
+        Graph neg = new Graph(GraphType.DIRECTED, true);
+        neg.addEdge("A", "B", -1);
+        try {
+            ShortestPaths.dijkstra(neg, "A");
+            assertTrue(false, "Negative weight accepted");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().equals("Negative edge weight: A -> B"), "Negative weight message");
+        }
+        neg.addEdge("C", "A", 1);
+        assertTrue(ShortestPaths.shortestPath(neg, "C", "A").equals(List.of("C", "A")), "Search settles t before a negative arc");
+
+        // 19) Incremental connectivity index == DFS components under inserts and removals
+        Graph cg = new Graph(GraphType.UNDIRECTED, false);
+        var conn = cg.connectivity();
+        for (int i = 0; i < 300; i++) {
+            cg.addEdge(String.valueOf(rnd.nextInt(500)), String.valueOf(rnd.nextInt(500)));
+            if (i % 50 == 0) {
+                assertTrue(conn.components().equals(DFS.connectedComponentsUndirected(cg)), "Incremental components");
+            }
+        }
+        cg.addVertex("lonely");
+        assertTrue(conn.componentCount() == DFS.connectedComponentsUndirected(cg).size(), "Component count");
+        assertTrue(!conn.connected("lonely", "0") && conn.componentOf("missing") == -1, "Isolated / missing vertex");
+        int builds = conn.rebuildCount();
+        cg.addEdge("lonely", "0");
+        assertTrue(conn.connected("0", "lonely") && conn.rebuildCount() == builds, "Union without rebuild");
+        cg.removeEdge("lonely", "0");
+        assertTrue(!conn.connected("0", "lonely") && conn.rebuildCount() == builds + 1, "Rebuild after removal");
+        for (int i = 0; i < 100; i++) cg.removeVertex(String.valueOf(rnd.nextInt(500)));
+        assertTrue(conn.components().equals(DFS.connectedComponentsUndirected(cg)), "Components after removeVertex");
+
+        // 20) Parallel components == sequential components
+        Graph pc = new Graph(GraphType.UNDIRECTED, false);
+        for (int i = 0; i < 3000; i++) {
+            pc.addEdge(String.valueOf(rnd.nextInt(4000)), String.valueOf(rnd.nextInt(4000)));
+        }
+        var seqComps = DFS.connectedComponentsUndirected(pc);
+        assertTrue(DFS.connectedComponentsUndirected(pc, true).equals(seqComps), "Parallel components (flag)");
+        for (int threads : new int[]{1, 3, 8}) {
+            assertTrue(DFS.connectedComponentsParallel(pc.freeze(), threads).equals(seqComps), "Parallel components");
+            assertTrue(DFS.connectedComponentsParallel(big.freeze(), threads)
+                    .equals(DFS.connectedComponentsUndirected(big)), "Parallel components (path)");
+        }
+
+        // 21) Stack-safe DFS == textbook recursion; deep chains; DfsEngine events
+        for (Graph gd : new Graph[]{g6, g9, pc}) {
+            String root = gd.vertices().get(0);
+            List<String> refOrder = new java.util.ArrayList<>();
+            java.util.Map<String, String> refParent = new java.util.HashMap<>();
+            refParent.put(root, null);
+            referenceDfs(gd, root, refOrder, refParent);
+            var it = DFS.recursive(gd, root);
+            assertTrue(it.order.equals(refOrder) && it.parent.equals(refParent), "Explicit-stack DFS == recursion");
+            var ct = DFS.recursive(gd.freeze(), root);
+            assertTrue(ct.order.equals(refOrder) && ct.parent.equals(refParent), "DfsEngine DFS == recursion");
+        }
+        Graph chain = new Graph(GraphType.UNDIRECTED, false);
+        for (int i = 0; i < 100_000; i++) chain.addEdge("v" + i, "v" + (i + 1));
+        assertTrue(DFS.recursive(chain, "v0").order.size() == 100_001, "Deep DFS without StackOverflowError");
+        assertTrue(!DFS.hasCycleUndirected(chain) && !DFS.hasCycleUndirected(chain.freeze()), "Deep acyclic chain");
+        chain.addEdge("v100000", "v0");
+        assertTrue(DFS.hasCycleUndirected(chain) && DFS.hasCycleUndirected(chain.freeze()), "Deep cycle");
+        for (Graph gd : new Graph[]{g6, g9, pc}) {
+            boolean sameRows = true;
+            for (String name : gd.vertices()) {
+                int u = gd.idOf(name);
+                List<Integer> walked = new java.util.ArrayList<>();
+                for (int w = gd.nextNeighborId(u, -1); w >= 0; w = gd.nextNeighborId(u, w)) walked.add(w);
+                List<Integer> visited = new java.util.ArrayList<>();
+                gd.forEachNeighborId(u, w -> visited.add(w));
+                sameRows &= walked.equals(visited);
+            }
+            assertTrue(sameRows, "Neighbor cursor walk == forEachNeighborId");
+        }
+        CompactGraph dag = g9.freeze();
+        var engine = new algorithms.DfsEngine(dag);
+        int[] backEdges = {0};
+        engine.runAll(new algorithms.DfsEngine.Visitor() {
+            @Override
+            public boolean backEdge(int u, int v) {
+                backEdges[0]++;
+                return true;
+            }
+        });
+        boolean nested = true;
+        for (int v = 0; v < dag.vertexCount(); v++) {
+            int p = engine.parent(v);
+            nested &= engine.pre(v) < engine.post(v)
+                    && (p < 0 || (engine.pre(p) < engine.pre(v) && engine.post(v) < engine.post(p)));
+        }
+        assertTrue(nested, "DFS timestamps nest along tree edges");
+        assertTrue((backEdges[0] > 0) == hasDirectedCycle(g9), "Back edge <=> directed cycle");
+
+        // 22) Directed analytics: SCC (vs mutual reachability), Kahn order, directed cycles
+        var scc = algorithms.DirectedAnalytics.stronglyConnectedComponents(g9);
+        java.util.Map<String, java.util.Set<String>> reach = new java.util.HashMap<>();
+        for (String v : g9.vertices()) reach.put(v, BFS.run(g9, v).distance.keySet());
+        int sccVertices = 0;
+        for (List<String> comp : scc) {
+            sccVertices += comp.size();
+            String head = comp.get(0);
+            for (String v : g9.vertices()) {
+                boolean mutual = reach.get(head).contains(v) && reach.get(v).contains(head);
+                assertTrue(mutual == comp.contains(v), "SCC == mutual reachability");
+            }
+        }
+        assertTrue(sccVertices == g9.vertexCount(), "SCC partition");
+        assertTrue(algorithms.DirectedAnalytics.topologicalOrder(g9).isEmpty() == hasDirectedCycle(g9), "Kahn on cyclic");
+        Graph dagG = new Graph(GraphType.DIRECTED, false);
+        for (int i = 0; i < 2000; i++) {
+            int a = rnd.nextInt(500), b = rnd.nextInt(500);
+            if (a != b) dagG.addEdge(String.valueOf(Math.min(a, b)), String.valueOf(Math.max(a, b)));
+        }
+        List<String> topo = algorithms.DirectedAnalytics.topologicalOrder(dagG);
+        boolean respects = topo.size() == dagG.vertexCount();
+        for (String u : dagG.vertices()) {
+            for (String v : dagG.neighbors(u)) respects &= topo.indexOf(u) < topo.indexOf(v);
+        }
+        assertTrue(respects, "Topological order respects arcs");
+        assertTrue(!algorithms.DirectedAnalytics.hasCycle(dagG)
+                && algorithms.DirectedAnalytics.stronglyConnectedComponents(dagG).size() == dagG.vertexCount(), "DAG");
+        dagG.addEdge("499", "0");
+        List<String> cyc = algorithms.DirectedAnalytics.findCycle(dagG);
+        boolean closed = !cyc.isEmpty();
+        for (int i = 0; i < cyc.size(); i++) {
+            closed &= dagG.neighbors(cyc.get(i)).contains(cyc.get((i + 1) % cyc.size()));
+        }
+        assertTrue(closed && hasDirectedCycle(dagG), "Directed cycle is a real cycle");
+        Graph ring = new Graph(GraphType.DIRECTED, false);
+        for (int i = 0; i < 100_000; i++) ring.addEdge("r" + i, "r" + ((i + 1) % 100_000));
+        assertTrue(algorithms.DirectedAnalytics.stronglyConnectedComponents(ring).size() == 1, "Deep SCC (no recursion)");
+        assertTrue(algorithms.DirectedAnalytics.findCycle(ring).size() == 100_000, "Deep directed cycle");
+
+        // 23) ConcurrentGraph: lock-free readers see only whole batches; old snapshots never change
+        graph.ConcurrentGraph cgr = new graph.ConcurrentGraph(GraphType.UNDIRECTED, false);
+        cgr.addVertex("p0");
+        Graph before = cgr.snapshot();
+        java.util.concurrent.atomic.AtomicBoolean torn = new java.util.concurrent.atomic.AtomicBoolean();
+        java.util.concurrent.atomic.AtomicBoolean writing = new java.util.concurrent.atomic.AtomicBoolean(true);
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                while (writing.get()) {
+                    Graph view = cgr.snapshot();
+                    int edges = view.edgeCountLogical();
+                    // batches extend the path p0-p1-... by 10 edges at a time
+                    if (edges % 10 != 0 || BFS.run(view, "p0").order.size() != edges + 1) torn.set(true);
+                }
+            });
+            readers[r].start();
+        }
+        for (int b = 0; b < 200; b++) {
+            int base = b * 10;
+            cgr.update(gw -> {
+                for (int i = base; i < base + 10; i++) gw.addEdge("p" + i, "p" + (i + 1));
+            });
+        }
+        writing.set(false);
+        for (Thread t : readers) t.join();
+        assertTrue(!torn.get(), "Readers never see a partial batch");
+        assertTrue(cgr.version() == 201 && cgr.snapshot().edgeCountLogical() == 2000, "Published version");
+        assertTrue(before.vertexCount() == 1 && before.edgeCountLogical() == 0, "Old snapshot unchanged");
+        Graph mid = cgr.snapshot();
+        assertTrue(cgr.removeEdge("p0", "p1") && mid.neighbors("p0").equals(List.of("p1")), "COW removal isolated");
+        try {
+            cgr.update(gw -> {
+                gw.addEdge("p0", "x");
+                throw new IllegalStateException("abort");
+            });
+        } catch (IllegalStateException expected) {
+            // nothing published
+        }
+        assertTrue(!cgr.snapshot().containsVertex("x") && cgr.version() == 202, "Failed batch publishes nothing");
+        try {
+            cgr.snapshot().addEdge("a", "b");
+            assertTrue(false, "Snapshot accepted a write");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().equals("Graph snapshot is read-only"), "Read-only message");
+        }
+        int[] inArcs = {0};
+        for (String v : g9.vertices()) g9.forEachInNeighbor(v, u -> ++inArcs[0] > 0);
+        graph.ConcurrentGraph fromG9 = new graph.ConcurrentGraph(g9);
+        fromG9.removeVertex("0");
+        int[] inArcsAfter = {0};
+        for (String v : g9.vertices()) g9.forEachInNeighbor(v, u -> ++inArcsAfter[0] > 0);
+        assertTrue(inArcs[0] == inArcsAfter[0] && inArcs[0] == g9.edgeCountStored(), "Source graph untouched");
+        assertTrue(g9.containsVertex("0") && BFS.run(fromG9.snapshot(), "1").order
+                .equals(BFS.run(fromG9.snapshot().freeze(), "1").order), "COW copy of a directed graph");
+
+        // 24) removeVertex / removeVertices == rebuilding the graph without those vertices
+        for (int mode = 0; mode < 3; mode++) {
+            GraphType type = mode == 0 ? GraphType.UNDIRECTED : GraphType.DIRECTED;
+            int[][] arcs = new int[1500][];
+            for (int i = 0; i < arcs.length; i++) arcs[i] = new int[]{rnd.nextInt(300), rnd.nextInt(300), rnd.nextInt(9)};
+            java.util.Set<String> drop = new java.util.HashSet<>();
+            for (int i = 0; i < 40; i++) drop.add(String.valueOf(rnd.nextInt(300)));
+
+            Graph single = new Graph(type, true, mode == 2), bulk = new Graph(type, true, mode == 2);
+            Graph expected = new Graph(type, true);
+            for (int[] a : arcs) {
+                String u = String.valueOf(a[0]), v = String.valueOf(a[1]);
+                single.addEdge(u, v, a[2]);
+                bulk.addEdge(u, v, a[2]);
+                if (!drop.contains(u)) expected.addVertex(u);
+                if (!drop.contains(v)) expected.addVertex(v);
+                if (!drop.contains(u) && !drop.contains(v)) expected.addEdge(u, v, a[2]);
+            }
+            int present = 0;
+            for (String v : drop) present += single.containsVertex(v) ? 1 : 0;
+            for (String v : drop) single.removeVertex(v);
+            assertTrue(bulk.removeVertices(drop) == present, "removeVertices count");
+            for (Graph rg : new Graph[]{single, bulk}) {
+                assertTrue(Arrays.deepEquals(rg.toAdjMatrix(), expected.toAdjMatrix())
+                        && rg.edgeCountStored() == expected.edgeCountStored(), "removeVertex mode " + mode);
+            }
+            if (mode == 2) {
+                var fromSingle = BFS.shortestPathUnweighted(single, "1", "2");
+                assertTrue(fromSingle.equals(BFS.shortestPathUnweighted(expected, "1", "2")), "Incoming index after removal");
+            }
+        }
+
+        // 25) Sparse / bitset / Matrix Market exports == toAdjMatrix
+        for (Graph mg : new Graph[]{wg, g6, grid}) {
+            int[][] dense = mg.toAdjMatrix();
+            var sm = mg.toSparseMatrix();
+            assertTrue(Arrays.deepEquals(sm.toDense(), dense) && sm.nonZeros() == mg.edgeCountStored(), "CSR export");
+            var coo = sm.toCoo();
+            int[][] fromCoo = new int[dense.length][dense.length];
+            for (int k = 0; k < coo.row.length; k++) fromCoo[coo.row[k]][coo.col[k]] = coo.value == null ? 1 : coo.value[k];
+            assertTrue(Arrays.deepEquals(fromCoo, dense) && sm.get(0, 0) == dense[0][0], "COO export");
+
+            java.io.StringWriter mm = new java.io.StringWriter(), mmc = new java.io.StringWriter();
+            GraphIO.writeMatrixMarket(mg, mm);
+            GraphIO.writeMatrixMarket(mg.freeze(), mmc);
+            assertTrue(mm.toString().equals(mmc.toString()), "Matrix Market Graph == CompactGraph");
+            String[] lines = mm.toString().split("\n");
+            boolean symmetric = lines[0].endsWith("symmetric");
+            int first = 1;
+            while (lines[first].startsWith("%")) first++;
+            int[][] fromMm = new int[dense.length][dense.length];
+            for (int i = first + 1; i < lines.length; i++) {
+                String[] t = lines[i].split(" ");
+                int r = Integer.parseInt(t[0]) - 1, c = Integer.parseInt(t[1]) - 1;
+                int val = t.length > 2 ? Integer.parseInt(t[2]) : 1;
+                fromMm[r][c] = val;
+                if (symmetric) fromMm[c][r] = val;
+            }
+            assertTrue(Arrays.deepEquals(fromMm, dense)
+                    && Integer.parseInt(lines[first].split(" ")[2]) == lines.length - first - 1, "Matrix Market export");
+        }
+        var bits = g6.toBitMatrix();
+        assertTrue(Arrays.deepEquals(bits.toDense(), g6.toAdjMatrix()), "Bit matrix export");
+        int b1 = g6.vertices().indexOf("1"), b2 = g6.vertices().indexOf("2");
+        java.util.Set<String> common = new java.util.HashSet<>(g6.neighbors("1"));
+        common.retainAll(g6.neighbors("2"));
+        assertTrue(bits.rowCount(b1) == g6.degree("1") && bits.commonCount(b1, b2) == common.size(), "Bit matrix rows");
+
+        // 26) Interned ids + lazy result views
+        Graph ig = new Graph(GraphType.UNDIRECTED, false);
+        ig.addEdge("b", "a");
+        ig.addEdge("b", "c");
+        assertTrue(ig.idOf("b") == 0 && ig.idOf("a") == 1 && ig.nameOf(2).equals("c") && ig.idBound() == 3, "Id interning");
+        var before18 = BFS.run(ig, "a");
+        var dfsBefore = DFS.recursive(ig, "a");
+        ig.removeVertex("b");
+        ig.addVertex("d");
+        assertTrue(ig.idOf("d") == 3 && ig.idOf("b") == 0 && !ig.containsVertex("b"), "Ids are never reused");
+        ig.addEdge("b", "d");
+        assertTrue(ig.idOf("b") == 0 && ig.neighbors("b").equals(List.of("d")), "Re-added vertex keeps its id");
+        assertTrue(before18.order.equals(List.of("a", "b", "c")) && before18.distance.get("c") == 2
+                && before18.parent.get("c").equals("b") && !before18.distance.containsKey("d"), "Views survive mutation");
+        assertTrue(dfsBefore.order.equals(List.of("a", "b", "c")) && dfsBefore.parent.get("c").equals("b")
+                && dfsBefore.parent.containsKey("a") && dfsBefore.parent.get("a") == null, "DFS parent view");
+        var bfsView = BFS.run(g6, "1");
+        assertTrue(new java.util.HashMap<>(bfsView.distance).equals(bfsView.distance)
+                && bfsView.distance.size() == bfsView.order.size() && bfsView.distance.get("nope") == null
+                && bfsView.distance.get(42) == null, "Result views behave like maps");
+        // views hold an immutable name table, not the graph; ConcurrentGraph compacts ids under churn
+        Graph.NameTable table = ig.nameTable();
+        assertTrue(table.size() == 4 && table.idOf("d") == 3 && table.idOf("x") == -1 && table.nameOf(0).equals("b"),
+                "Name table snapshot");
+        for (int i = 0; i < 40; i++) ig.addVertex("x" + i); // grows the graph's name array past the snapshot
+        assertTrue(table.size() == 4 && table.idOf("x0") == -1 && ig.nameTable().idOf("x0") == 4
+                && table.nameOf(3).equals("d") && ig.nameTable().nameOf(43).equals("x39"), "Name table is immutable");
+        graph.ConcurrentGraph churn = new graph.ConcurrentGraph(GraphType.UNDIRECTED, false);
+        churn.update(c -> c.addEdge("hub", "keep"));
+        var churnBfs = BFS.run(churn.snapshot(), "hub");
+        for (int round = 0; round < 50; round++) {
+            int r = round;
+            churn.update(c -> {
+                for (int i = 0; i < 100; i++) c.addEdge("hub", "t" + r + "_" + i);
+            });
+            churn.update(c -> {
+                for (int i = 0; i < 100; i++) c.removeVertex("t" + r + "_" + i);
+            });
+        }
+        Graph churned = churn.snapshot();
+        assertTrue(churned.idBound() <= 2048 && churned.vertexCount() == 2 && churned.version() > 100
+                && churned.neighbors("hub").equals(List.of("keep")), "Snapshots compact ids under churn");
+        assertTrue(churnBfs.order.equals(List.of("hub", "keep")) && churnBfs.parent.get("keep").equals("hub"),
+                "Old results unaffected by id compaction");
+
+        // 27) Lazy traversal streams == BFS.run / DFS.recursive; on-demand path / distance lookups
+        TraversalSpec[] specs27 = {TraversalSpec.UNBOUNDED, TraversalSpec.maxDepth(2),
+                TraversalSpec.until("7").withMaxVisited(40)};
+        for (Graph gs : new Graph[]{g6, g8, g9}) {
+            String root = gs.vertices().get(0);
+            CompactGraph cs = gs.freeze();
+            for (TraversalSpec spec : specs27) {
+                assertTrue(BFS.stream(gs, root, spec).toList().equals(BFS.run(gs, root, spec).order)
+                        && BFS.stream(cs, root, spec).toList().equals(BFS.run(gs, root, spec).order), "BFS stream order");
+                assertTrue(DFS.stream(gs, root, spec).toList().equals(DFS.recursive(gs, root, spec).order)
+                        && DFS.stream(cs, root, spec).toList().equals(DFS.recursive(gs, root, spec).order), "DFS stream order");
+            }
+            var rb = BFS.run(gs, root);
+            var rd = DFS.recursive(gs, root);
+            for (String v : gs.vertices()) {
+                List<String> p = rb.pathTo(v);
+                assertTrue(rb.distanceTo(v) == (rb.distance.containsKey(v) ? rb.distance.get(v) : -1)
+                        && p.size() == rb.distanceTo(v) + 1 && (p.isEmpty() || p.get(0).equals(root)), "BFS pathTo/distanceTo");
+                List<String> q = rd.pathTo(v);
+                assertTrue(q.isEmpty() != rd.parent.containsKey(v) && (q.isEmpty() || q.get(0).equals(root)), "DFS pathTo");
+            }
+        }
+        assertTrue(BFS.stream(chain, "v0").limit(3).toList().equals(List.of("v0", "v1", "v100000"))
+                && DFS.stream(chain, "v0").skip(99_999).findFirst().isPresent()
+                && BFS.stream(chain, "missing").count() == 0, "Streams stop early / deep chain / missing start");
+
+        // 28) Graph.version + versioned LRU traversal cache == direct computation
+        Graph gc = new Graph(GraphType.UNDIRECTED, false);
+        for (int i = 0; i < 300; i++) gc.addEdge(String.valueOf(rnd.nextInt(120)), String.valueOf(rnd.nextInt(120)));
+        long ver = gc.version();
+        gc.addEdge("0", "0x");
+        gc.addEdge("0", "0x"); // duplicate: no change
+        gc.removeEdge("0", "nope");
+        assertTrue(gc.version() == ver + 2, "Version bumps only on real changes");
+        algorithms.TraversalCache cache = new algorithms.TraversalCache(gc, 4, Long.MAX_VALUE);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 40; i++) {
+                String s = String.valueOf(rnd.nextInt(6)), t = String.valueOf(rnd.nextInt(130));
+                assertTrue(cache.shortestPath(s, t).equals(BFS.shortestPathUnweighted(gc, s, t)), "Cached path");
+                var so = SocialReachability.run(gc, s, t);
+                var sc = cache.social(s, t);
+                assertTrue(sc.withinDistance2.equals(so.withinDistance2)
+                        && sc.shortestPathToTarget.equals(so.shortestPathToTarget), "Cached social reachability");
+            }
+            gc.removeVertex(String.valueOf(round)); // stale entries must not be served
+        }
+        var cs = cache.stats();
+        assertTrue(cs.hits > 0 && cs.misses > 0 && cs.evictions > 0 && cs.invalidations > 0 && cs.entries <= 4, "Cache counters " + cs);
+        algorithms.TraversalCache tiny = new algorithms.TraversalCache(gc, 100, 1);
+        tiny.bfs("5");
+        tiny.bfs("5");
+        assertTrue(tiny.stats().hits == 0 && tiny.stats().entries == 0, "Byte budget below one entry -> nothing cached");
+        graph.ConcurrentGraph live = new graph.ConcurrentGraph(gc);
+        algorithms.TraversalCache liveCache = new algorithms.TraversalCache(live, 8, Long.MAX_VALUE);
+        int distBefore = liveCache.distance("5", "0x");
+        live.addEdge("5", "0x");
+        assertTrue(liveCache.distance("5", "0x") == 1 && distBefore != 1 && liveCache.stats().invalidations == 1,
+                "Cache follows ConcurrentGraph snapshots");
+
+        // 29) Opt-in traversal metrics
+        assertTrue(TraversalMetrics.current() == null, "Metrics off by default");
+        TraversalMetrics tm = TraversalMetrics.enable();
+        Graph star = new Graph(GraphType.UNDIRECTED, false);
+        for (int i = 1; i <= 5; i++) star.addEdge("c", "l" + i);
+        star.addEdge("l1", "x");
+        BFS.run(star, "c");
+        BFS.run(star.freeze(), "c");
+        DFS.recursive(star, "c");
+        assertTrue(tm.histogram("bfs.visited").count() == 2 && tm.histogram("bfs.visited").max() == 7
+                && tm.histogram("bfs.edges_scanned").max() == star.edgeCountStored()
+                && tm.histogram("bfs.frontier").count() == 6 && tm.histogram("bfs.frontier").max() == 5
+                && tm.histogram("bfs.max_worklist").max() == 5 && tm.histogram("dfs.recursive.max_worklist").max() == 3
+                && tm.histogram("dfs.recursive.traverse_ns").count() == 1, "Traversal metrics " + tm.histograms());
+        TraversalMetrics.disable();
+        BFS.run(star, "c");
+        assertTrue(TraversalMetrics.current() == null && tm.histogram("bfs.visited").count() == 2, "Disabled metrics record nothing");
+        TraversalMetrics.Histogram h = new TraversalMetrics.Histogram();
+        for (int i = 1; i <= 100; i++) h.record(i);
+        assertTrue(h.min() == 1 && h.max() == 100 && h.percentile(0.5) == 63 && h.percentile(1) == 100
+                && h.mean() == 50.5, "Histogram buckets");
+
+        // 30) GraphBuilder (one sort, parallel rows) == addEdge one by one
+        for (GraphType bt : GraphType.values()) {
+            for (boolean bw : new boolean[]{false, true}) {
+                Graph inc = new Graph(bt, bw, true);
+                graph.GraphBuilder gb = new graph.GraphBuilder(bt, bw, true);
+                inc.addVertex("iso");
+                gb.addVertex("iso");
+                for (int i = 0; i < 6000; i++) {
+                    String u = "v" + rnd.nextInt(300), v = "v" + rnd.nextInt(300); // duplicates + self-loops
+                    Integer wt = bw ? rnd.nextInt(50) : null;
+                    inc.addEdge(u, v, wt);
+                    gb.addEdge(u, v, wt);
+                }
+                for (int threads : new int[]{1, 4}) {
+                    Graph bulk = gb.build(threads);
+                    assertTrue(bulk.vertices().equals(inc.vertices()) && bulk.edgeCountStored() == inc.edgeCountStored()
+                            && Arrays.deepEquals(bulk.toAdjMatrix(), inc.toAdjMatrix()), "Builder graph == addEdge graph");
+                    assertTrue(Arrays.deepEquals(gb.buildCompact(threads).toAdjMatrix(), inc.toAdjMatrix()), "Builder compact");
+                    boolean inOk = true;
+                    for (String v : List.of("v0", "v7", "iso")) {
+                        List<String> a = new java.util.ArrayList<>(), b = new java.util.ArrayList<>();
+                        inc.forEachInNeighbor(v, a::add);
+                        bulk.forEachInNeighbor(v, b::add);
+                        inOk &= a.equals(b);
+                    }
+                    assertTrue(inOk, "Builder incoming index");
+                }
+            }
+        }
+        graph.GraphBuilder large = new graph.GraphBuilder(GraphType.DIRECTED, true);
+        for (int i = 0; i < 100_000; i++) large.addEdge("v" + rnd.nextInt(5000), "v" + rnd.nextInt(5000), rnd.nextInt(9));
+        CompactGraph defaultBuilt = large.buildCompact(), oneThread = large.buildCompact(1); // default sorts in parallel here
+        boolean sameLarge = defaultBuilt.vertices().equals(oneThread.vertices())
+                && defaultBuilt.edgeCountStored() == oneThread.edgeCountStored();
+        for (int a = 0; sameLarge && a < oneThread.edgeCountStored(); a++) {
+            sameLarge = defaultBuilt.target(a) == oneThread.target(a) && defaultBuilt.weight(a) == oneThread.weight(a);
+        }
+        assertTrue(sameLarge, "Default (parallel) build == single-threaded build");
+        Graph built = new graph.GraphBuilder(GraphType.UNDIRECTED, false).addEdge("b", "a").addEdge("c", "a").build();
+        built.addEdge("a", "aa");
+        built.removeVertex("c");
+        assertTrue(built.neighbors("a").equals(List.of("aa", "b")) && built.edgeCountLogical() == 2
+                && BFS.run(built, "b").order.equals(List.of("b", "a", "aa")), "Built graph stays mutable");
+        assertTrue(GraphIO.readCompactEdgeList(new StringReader(text)).toGraph().toAdjMatrix().length == 3, "toGraph bulk");
+
+        // 31) Vertex reordering (DEGREE / RCM / BFS): new ids, identical results in name order
+        Graph dag31 = new Graph(GraphType.DIRECTED, false);
+        for (int i = 0; i < 400; i++) {
+            int a = rnd.nextInt(150), b = rnd.nextInt(150);
+            if (a != b) dag31.addEdge(String.valueOf(Math.min(a, b)), String.valueOf(Math.max(a, b)));
+        }
+        for (Graph gr : new Graph[]{g6, g8, g9, wg, dag31, grid}) {
+            CompactGraph base = gr.freeze();
+            String root = base.vertices().get(0);
+            var socialQs = List.of(new SocialReachability.Query(root, base.vertices().get(base.vertexCount() - 1)),
+                    new SocialReachability.Query(base.vertices().get(1), root));
+            for (graph.VertexOrder vo : graph.VertexOrder.values()) {
+                CompactGraph ro = gr.freeze(vo);
+                String tag = " (" + vo + ")";
+                assertTrue(ro.vertices().equals(base.vertices()) && Arrays.deepEquals(ro.toAdjMatrix(), base.toAdjMatrix())
+                        && ro.toSparseMatrix().toDense().length == base.vertexCount()
+                        && Arrays.deepEquals(ro.toGraph().toAdjMatrix(), base.toAdjMatrix())
+                        && Arrays.deepEquals(ro.inNameOrder().toAdjMatrix(), base.toAdjMatrix()), "Reordered structure" + tag);
+                boolean ranksOk = true;
+                for (int r = 0; r < ro.vertexCount(); r++) ranksOk &= ro.rank(ro.idAtRank(r)) == r && ro.name(ro.idAtRank(r)).equals(base.name(r));
+                assertTrue(ranksOk, "Rank permutation" + tag);
+
+                var rb1 = BFS.run(base, root);
+                var rb2 = BFS.run(ro, root);
+                assertTrue(rb1.order.equals(rb2.order) && rb1.distance.equals(rb2.distance) && rb1.parent.equals(rb2.parent), "Reordered BFS" + tag);
+                var p1 = BFS.runParallel(base, root, 3, true);
+                var p2 = BFS.runParallel(ro, root, 3, true);
+                assertTrue(p1.order.equals(p2.order) && p1.parent.equals(p2.parent), "Reordered parallel BFS" + tag);
+                assertTrue(DFS.recursive(ro, root).parent.equals(DFS.recursive(base, root).parent)
+                        && DFS.recursive(ro, root).order.equals(DFS.recursive(base, root).order)
+                        && DFS.iterative(ro, root).order.equals(DFS.iterative(base, root).order)
+                        && DFS.stream(ro, root).toList().equals(DFS.recursive(base, root).order), "Reordered DFS" + tag);
+                assertTrue(DFS.connectedComponentsUndirected(ro).equals(DFS.connectedComponentsUndirected(base))
+                        && DFS.connectedComponentsParallel(ro, 2).equals(DFS.connectedComponentsUndirected(base))
+                        && DFS.hasCycleUndirected(ro) == DFS.hasCycleUndirected(base), "Reordered components" + tag);
+                assertTrue(algorithms.DirectedAnalytics.stronglyConnectedComponents(ro).equals(algorithms.DirectedAnalytics.stronglyConnectedComponents(base))
+                        && algorithms.DirectedAnalytics.topologicalOrder(ro).equals(algorithms.DirectedAnalytics.topologicalOrder(base))
+                        && algorithms.DirectedAnalytics.findCycle(ro).equals(algorithms.DirectedAnalytics.findCycle(base)), "Reordered directed analytics" + tag);
+                var d1 = ShortestPaths.deltaStepping(base, root, 0, 2);
+                var d2 = ShortestPaths.deltaStepping(ro, root, 0, 2);
+                assertTrue(d1.distance.equals(d2.distance) && d1.parent.equals(d2.parent)
+                        && new java.util.ArrayList<>(d1.distance.keySet()).equals(new java.util.ArrayList<>(d2.distance.keySet())), "Reordered delta-stepping" + tag);
+                var s1 = SocialReachability.runBatch(base, socialQs);
+                var s2 = SocialReachability.runBatch(ro, socialQs);
+                for (int i = 0; i < s1.size(); i++) {
+                    assertTrue(s1.get(i).withinDistance2.equals(s2.get(i).withinDistance2)
+                            && s1.get(i).shortestPathToTarget.equals(s2.get(i).shortestPathToTarget), "Reordered social batch" + tag);
+                }
+                java.io.StringWriter m1 = new java.io.StringWriter(), m2 = new java.io.StringWriter();
+                GraphIO.writeMatrixMarket(base, m1);
+                GraphIO.writeMatrixMarket(ro, m2);
+                assertTrue(m1.toString().equals(m2.toString()) && Arrays.equals(ro.toBitMatrix().toDense()[0], base.toBitMatrix().toDense()[0]),
+                        "Reordered exports" + tag);
+            }
+        }
+        Graph line = new Graph(GraphType.UNDIRECTED, false); // names "0".."999": lexicographic ids scatter the path
+        for (int i = 0; i + 1 < 1000; i++) line.addEdge(String.valueOf(i), String.valueOf(i + 1));
+        assertTrue(bandwidth(line.freeze()) > 100 && bandwidth(line.freeze(graph.VertexOrder.RCM)) == 1
+                && bandwidth(line.freeze(graph.VertexOrder.BFS)) <= 2 && line.freeze(graph.VertexOrder.RCM).isReordered()
+                && !line.freeze(graph.VertexOrder.RCM).reorder(graph.VertexOrder.NAME).isReordered(), "RCM / BFS reduce bandwidth");
+        CompactGraph byDegree = g6.freeze(graph.VertexOrder.DEGREE);
+        assertTrue(byDegree.degree(0) >= byDegree.degree(1) && byDegree.degree(1) >= byDegree.degree(byDegree.vertexCount() - 1),
+                "Degree order puts hubs first");
+
+        // 32) Reachability index (pruned landmark labels + hot 2-hop balls) == BFS answers; file round trip
+        Graph friends = new Graph(GraphType.UNDIRECTED, false);
+        for (int i = 0; i < 300; i++) friends.addVertex("p" + i);
+        for (int i = 0; i < 500; i++) {
+            int a = rnd.nextInt(i < 100 ? 20 : 280), b = rnd.nextInt(280); // a few hubs, isolated p280..p299
+            if (a != b) friends.addEdge("p" + a, "p" + b);
+        }
+        ReachabilityIndex seqIdx = ReachabilityIndex.build(friends, 0, 1);
+        ReachabilityIndex parIdx = ReachabilityIndex.build(friends, 40, 3);
+        assertTrue(parIdx.isCurrent(friends) && parIdx.hotVertexCount() == 40 && seqIdx.labelEntries() > 0
+                && ReachabilityIndex.build(friends.freeze(), 1, 1).graphVersion() == -1, "Reachability index build");
+        List<String> people = friends.vertices();
+        for (int q = 0; q < 400; q++) {
+            String s = people.get(rnd.nextInt(people.size())), t = people.get(rnd.nextInt(people.size()));
+            var viaBfs = SocialReachability.run(friends, s, t);
+            for (ReachabilityIndex idx : new ReachabilityIndex[]{seqIdx, parIdx}) {
+                var viaIdx = SocialReachability.run(friends, idx, s, t);
+                assertTrue(viaIdx.withinDistance2.equals(viaBfs.withinDistance2)
+                        && viaIdx.shortestPathToTarget.equals(viaBfs.shortestPathToTarget), "Indexed social query");
+                assertTrue(idx.distance(s, t) == BFS.run(friends, s).distanceTo(t), "Landmark distance oracle");
+            }
+        }
+        assertTrue(SocialReachability.run(parIdx, "missing", "p0").withinDistance2.isEmpty()
+                && parIdx.distance("p0", "missing") == -1, "Reachability index missing vertex");
+        try {
+            ReachabilityIndex.build(g8, 0, 1);
+            assertTrue(false, "Reachability index accepted a directed graph");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("UNDIRECTED"), "Reachability index directed graph");
+        }
+
+        java.nio.file.Path idxFile = java.nio.file.Files.createTempFile("reach", ".idx");
+        GraphIO.writeReachabilityIndex(parIdx, idxFile.toString());
+        ReachabilityIndex loaded = GraphIO.readReachabilityIndex(friends.freeze(graph.VertexOrder.DEGREE), idxFile.toString());
+        ReachabilityIndex rebound = loaded.bind(friends);
+        assertTrue(!loaded.isCurrent(friends) && loaded.graphVersion() == -1 && rebound.isCurrent(friends)
+                && rebound.graphVersion() == friends.version() && loaded.labelEntries() == parIdx.labelEntries()
+                && SocialReachability.run(loaded, "p3", "p250").shortestPathToTarget
+                .equals(SocialReachability.run(friends, "p3", "p250").shortestPathToTarget)
+                && loaded.withinDistance2("p1").equals(parIdx.withinDistance2("p1")), "Reachability index round trip");
+
+        friends.addEdge("p290", "p291"); // edit: index is stale, queries fall back to BFS
+        assertTrue(!parIdx.isCurrent(friends) && SocialReachability.run(friends, parIdx, "p290", "p291").shortestPathToTarget
+                .equals(List.of("p290", "p291")), "Stale reachability index falls back to BFS");
+        try {
+            loaded.bind(friends);
+            assertTrue(false, "Reachability index bound to an edited graph");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("different graph"), "Reachability index bind check");
+        }
+        // equal-sized graphs at the same version: only the instance the index was built from is current
+        Graph pairsA = GraphIO.readEdgeList(new StringReader("4 2 0 0\n0 1\n2 3\n"));
+        Graph pairsB = GraphIO.readEdgeList(new StringReader("4 2 0 0\n0 2\n1 3\n"));
+        Graph pairsA2 = GraphIO.readEdgeList(new StringReader("4 2 0 0\n0 1\n2 3\n"));
+        ReachabilityIndex pairsIdx = ReachabilityIndex.build(pairsA, 0, 1);
+        assertTrue(pairsA.version() == pairsB.version() && pairsIdx.isCurrent(pairsA) && !pairsIdx.isCurrent(pairsB)
+                && !pairsIdx.isCurrent(pairsA2) && pairsIdx.bind(pairsA2).isCurrent(pairsA2), "Index tied to its graph");
+        assertTrue(SocialReachability.run(pairsB, pairsIdx, "0", "1").shortestPathToTarget.isEmpty()
+                && SocialReachability.run(pairsA, pairsIdx, "0", "1").shortestPathToTarget.equals(List.of("0", "1")),
+                "Index of another graph is not used");
+        try {
+            pairsIdx.bind(pairsB);
+            assertTrue(false, "Reachability index bound to another graph");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("different graph"), "Reachability index bind other graph");
+        }
+        try {
+            GraphIO.readReachabilityIndex(friends.freeze(), idxFile.toString());
+            assertTrue(false, "Reachability index loaded for another graph");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("different graph"), "Reachability index graph check");
+        }
+        byte[] idxRaw = java.nio.file.Files.readAllBytes(idxFile);
+        idxRaw[idxRaw.length - 20] ^= 1;
+        java.nio.file.Files.write(idxFile, idxRaw);
+        try {
+            GraphIO.readReachabilityIndex(loaded.graph(), idxFile.toString());
+            assertTrue(false, "Reachability index checksum not verified");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().startsWith("Reachability index checksum mismatch"), "Reachability index checksum");
+        }
+        java.nio.file.Files.delete(idxFile);
+
+        // 33) Friend recommendations (wedge counting + bounded heap) == brute force over neighbors()
+        CompactGraph friendsC = friends.freeze(graph.VertexOrder.DEGREE);
+        for (FriendRecommendation.Score sc : FriendRecommendation.Score.values()) {
+            List<String> sources = new java.util.ArrayList<>(people.subList(0, 60));
+            sources.add("missing");
+            var batch = FriendRecommendation.topKBatch(friends, sources, 5, sc, 3);
+            for (int i = 0; i < sources.size(); i++) {
+                String s = sources.get(i);
+                var recs = FriendRecommendation.topK(friends, s, 5, sc);
+                assertTrue(recs.toString().equals(bruteRecommendations(friends, s, 5, sc).toString()), "Recommendations " + sc);
+                assertTrue(batch.get(i).toString().equals(recs.toString())
+                        && FriendRecommendation.topK(friendsC, s, 5, sc).toString().equals(recs.toString()), "Batch/compact recommendations " + sc);
+            }
+        }
+        boolean commonOk = true;
+        for (int i = 0; i < 200; i++) {
+            String a = people.get(rnd.nextInt(people.size())), b = people.get(rnd.nextInt(people.size()));
+            int expected = 0;
+            for (String u : friends.neighbors(a)) if (friends.neighbors(b).contains(u)) expected++;
+            commonOk &= FriendRecommendation.commonNeighbors(friends, a, b) == expected
+                    && FriendRecommendation.commonNeighbors(friendsC, a, b) == expected;
+        }
+        assertTrue(commonOk, "Common neighbors by sorted merge");
+        assertTrue(FriendRecommendation.topK(g8, "0", 3, FriendRecommendation.Score.JACCARD).isEmpty()
+                && FriendRecommendation.topK(friends, "p0", 0, FriendRecommendation.Score.JACCARD).isEmpty()
+                && FriendRecommendation.topK(friends, "p299", 3, FriendRecommendation.Score.COMMON_NEIGHBORS).isEmpty(),
+                "Recommendations on invalid input");
+
+        // 34) Local queries on a big Graph allocate by what they touch, not by idBound (also under churn)
+        graph.GraphBuilder pathBuilder = new graph.GraphBuilder(GraphType.UNDIRECTED, false);
+        for (int i = 0; i + 1 < 300_000; i++) pathBuilder.addEdge("v" + i, "v" + (i + 1));
+        Graph bigPath = pathBuilder.build();
+        int[] q34 = {0};
+        Runnable local = () -> {
+            int i = 1000 + (q34[0]++ * 7919) % 290_000;
+            String s = "v" + i, t = "v" + (i + 3);
+            var ball = SocialReachability.run(bigPath, s, t);
+            var near = BFS.run(bigPath, s, TraversalSpec.maxDepth(2));
+            var dfsNear = DFS.recursive(bigPath, s, TraversalSpec.maxDepth(2));
+            boolean ok = ball.withinDistance2.size() == 4 && ball.shortestPathToTarget.size() == 4
+                    && near.distanceTo(t) == -1 && near.pathTo("v" + (i + 2)).size() == 3
+                    && dfsNear.parent.containsKey("v" + (i - 2)) && DFS.iterative(bigPath, s, TraversalSpec.maxDepth(1)).order.size() == 3
+                    && ShortestPaths.shortestPath(bigPath, s, t).size() == 4
+                    && BFS.stream(bigPath, s).limit(5).count() == 5 && DFS.stream(bigPath, s).limit(5).count() == 5;
+            assertTrue(ok, "Local query answers on a big graph");
+        };
+        long perQuery = allocatedPerCall(local, 50);
+        assertTrue(perQuery < 64 * 1024, "Local queries allocate O(touched), got " + perQuery + " bytes per query");
+        int[] added = {0};
+        long perChurnQuery = allocatedPerCall(() -> {
+            bigPath.addVertex("new" + added[0]++);
+            local.run();
+        }, 50);
+        assertTrue(perChurnQuery < 64 * 1024, "Local queries under churn allocate O(touched), got " + perChurnQuery);
+
         System.out.println("ALL TESTS PASSED");
     }
+
+    // textbook recursive DFS, reference for the explicit-stack versions
+    private static void referenceDfs(Graph g, String u, List<String> order, java.util.Map<String, String> parent) {
+        order.add(u);
+        for (String v : g.neighbors(u)) {
+            if (!parent.containsKey(v)) {
+                parent.put(v, u);
+                referenceDfs(g, v, order, parent);
+            }
+        }
+    }
+
+    // every non-friend at distance 2 scored straight from neighbors(), sorted by score desc, name asc
+    private static List<FriendRecommendation.Recommendation> bruteRecommendations(Graph g, String s, int k,
+                                                                                 FriendRecommendation.Score score) {
+        List<FriendRecommendation.Recommendation> all = new java.util.ArrayList<>();
+        if (!g.containsVertex(s)) return all;
+        List<String> mine = g.neighbors(s);
+        for (String v : g.vertices()) {
+            if (v.equals(s) || mine.contains(v)) continue;
+            int common = 0;
+            double adamic = 0;
+            for (String u : mine) {
+                if (!g.neighbors(v).contains(u)) continue;
+                common++;
+                adamic += 1 / Math.log(Math.max(2, g.degree(u)));
+            }
+            if (common == 0) continue;
+            double value = score == FriendRecommendation.Score.COMMON_NEIGHBORS ? common
+                    : score == FriendRecommendation.Score.ADAMIC_ADAR ? adamic
+                    : (double) common / (mine.size() + g.degree(v) - common);
+            all.add(new FriendRecommendation.Recommendation(v, common, value));
+        }
+        all.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : a.vertex.compareTo(b.vertex));
+        return all.subList(0, Math.min(k, all.size()));
+    }
+
+    // max |id(u) - id(v)| over all arcs
+    // bytes allocated by this thread per call of r (after a warm-up); 0 if the JVM can't tell
+    private static long allocatedPerCall(Runnable r, int calls) {
+        if (!(java.lang.management.ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)
+                || !mx.isThreadAllocatedMemorySupported()) {
+            return 0;
+        }
+        for (int i = 0; i < calls; i++) r.run();
+        long before = mx.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) r.run();
+        return (mx.getCurrentThreadAllocatedBytes() - before) / calls;
+    }
+
+    private static int bandwidth(CompactGraph g) {
+        int max = 0;
+        for (int u = 0; u < g.vertexCount(); u++) {
+            for (int a = g.begin(u); a < g.end(u); a++) max = Math.max(max, Math.abs(u - g.target(a)));
+        }
+        return max;
+    }
+
+    // repeatedly strip vertices without incoming arcs; a cycle is what remains
+    private static boolean hasDirectedCycle(Graph g) {
+        Graph h = new Graph(GraphType.DIRECTED, false);
+        for (String u : g.vertices()) {
+            h.addVertex(u);
+            for (String v : g.neighbors(u)) h.addEdge(u, v);
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            java.util.Set<String> hasIn = new java.util.HashSet<>();
+            for (String u : h.vertices()) hasIn.addAll(h.neighbors(u));
+            for (String u : h.vertices()) {
+                if (!hasIn.contains(u)) {
+                    h.removeVertex(u);
+                    changed = true;
+                }
+            }
+        }
+        return h.vertexCount() > 0;
+    }
 }
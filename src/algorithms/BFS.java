@@ -1,11 +1,18 @@
 package algorithms;
 
+import graph.CompactGraph;
 import graph.Graph;
+import graph.IdNeighborVisitor;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 public class BFS {
 
+    /**
+     * order/distance/parent are read-only views over the int arrays of the traversal:
+     * names and entries are produced only when read.
+     */
     public static class Result {
         public final List<String> order;
         public final Map<String, Integer> distance; // number of edges from start
@@ -16,6 +23,69 @@ public class BFS {
             this.distance = distance;
             this.parent = parent;
         }
+
+        /**
+         * Number of edges from start to t, -1 if t was not reached.
+         */
+        public int distanceTo(String t) {
+            Integer d = distance.get(t);
+            return d == null ? -1 : d;
+        }
+
+        /**
+         * BFS-tree path start -> t (inclusive), rebuilt on demand from parent; empty if t was not reached.
+         */
+        public List<String> pathTo(String t) {
+            if (t == null || !distance.containsKey(t)) return List.of();
+            LinkedList<String> path = new LinkedList<>();
+            for (String cur = t; cur != null; cur = parent.get(cur)) path.addFirst(cur);
+            return path;
+        }
+    }
+
+    // One visitor per traversal. Discovered ids get slots in discovery order, so the slots are
+    // the BFS queue; dist/parent are per slot and grow with it (cost ~ touched part, not idBound).
+    private static final class Expander implements IdNeighborVisitor {
+        final IdSlots seen;
+        int[] dist = new int[16];
+        int[] parent = new int[16]; // parent id, -1 = start
+        int u, du;
+
+        Expander(int idBound) {
+            seen = new IdSlots(idBound);
+        }
+
+        void discover(int v, int d, int p) {
+            int k = seen.add(v);
+            if (k == dist.length) {
+                dist = Arrays.copyOf(dist, k * 2);
+                parent = Arrays.copyOf(parent, k * 2);
+            }
+            dist[k] = d;
+            parent[k] = p;
+        }
+
+        @Override
+        public boolean visit(int v) {
+            if (!seen.contains(v)) discover(v, du + 1, u);
+            return true;
+        }
+
+        // order = slots [0, head); distance/parent cover every discovered id
+        Result views(IdViews.Names names, int head) {
+            int[] d = dist, p = parent;
+            return new Result(IdViews.list(names, seen.ids(), 0, head),
+                    IdViews.map(names, seen, k -> d[k]),
+                    IdViews.map(names, seen, k -> p[k] < 0 ? null : names.name(p[k])));
+        }
+    }
+
+    // order = queue[0, head); distance/parent cover everything discovered, queue[0, tail)
+    static Result views(IdViews.Names names, int[] queue, int head, int tail, int[] dist, int[] parent) {
+        java.util.function.IntPredicate reached = v -> v < dist.length && dist[v] >= 0;
+        return new Result(IdViews.list(names, queue, 0, head),
+                IdViews.map(names, queue, tail, reached, v -> dist[v]),
+                IdViews.map(names, queue, tail, reached, v -> parent[v] < 0 ? null : names.name(parent[v])));
     }
 
     /**
@@ -23,57 +93,147 @@ public class BFS {
      * If start vertex doesn't exist -> returns empty result.
      */
     public static Result run(Graph g, String start) {
+        return run(g, start, TraversalSpec.UNBOUNDED);
+    }
+
+    /**
+     * BFS limited by spec: vertices at maxDepth are not expanded, and the search ends after
+     * the stop vertex / maxVisited-th vertex is dequeued. order = dequeued vertices;
+     * distance/parent also cover the discovered frontier (their values are exact BFS values).
+     */
+    public static Result run(Graph g, String start, TraversalSpec spec) {
         if (g == null || start == null || !g.containsVertex(start)) {
             return new Result(List.of(), Map.of(), Map.of());
         }
 
-        Queue<String> q = new ArrayDeque<>();
-        Set<String> visited = new HashSet<>();
+        TraversalMetrics.Probe probe = TraversalMetrics.start("bfs");
+        Expander ex = new Expander(g.idBound());
+        ex.discover(g.idOf(start), 0, -1);
 
-        List<String> order = new ArrayList<>();
-        Map<String, Integer> dist = new HashMap<>();
-        Map<String, String> parent = new HashMap<>();
-
-        visited.add(start);
-        dist.put(start, 0);
-        parent.put(start, null);
-        q.add(start);
-
-        while (!q.isEmpty()) {
-            String u = q.poll();
-            order.add(u);
+        int head = 0;
+        while (head < ex.seen.size()) {
+            int u = ex.seen.id(head);
+            int du = ex.dist[head++];
+            if (probe != null) probe.dequeued(du);
+            if (spec.shouldStop(g.nameOf(u), head)) break;
+            if (du >= spec.maxDepth) continue;
 
             // neighbors already deterministic (Graph uses TreeSet ordering)
-            for (String v : g.neighbors(u)) {
-                if (!visited.contains(v)) {
-                    visited.add(v);
-                    dist.put(v, dist.get(u) + 1);
-                    parent.put(v, u);
-                    q.add(v);
-                }
-            }
+            ex.u = u;
+            ex.du = du;
+            g.forEachNeighborId(u, ex);
+            if (probe != null) probe.expand(g.degreeOfId(u), ex.seen.size() - head);
         }
 
-        return new Result(order, dist, parent);
+        if (probe != null) probe.traversed(head);
+        return ex.views(IdViews.of(g), head);
+    }
+
+    /**
+     * Lazy BFS: vertices in the order of run(g, start, spec), each one discovered and expanded only
+     * when the stream pulls it (limit / takeWhile / findFirst stop the search).
+     */
+    public static Stream<String> stream(Graph g, String start, TraversalSpec spec) {
+        return TraversalStreams.bfs(g, start, spec);
+    }
+
+    public static Stream<String> stream(Graph g, String start) {
+        return stream(g, start, TraversalSpec.UNBOUNDED);
+    }
+
+    public static Stream<String> stream(CompactGraph g, String start, TraversalSpec spec) {
+        return TraversalStreams.bfs(g, start, spec);
+    }
+
+    public static Stream<String> stream(CompactGraph g, String start) {
+        return stream(g, start, TraversalSpec.UNBOUNDED);
     }
 
     /**
-     * Shortest path in unweighted graph using BFS parents.
+     * Shortest path in unweighted graph (same path as the BFS parents give).
      * Returns vertices from s to t (inclusive). If unreachable -> empty list.
+     *
+     * Uses bidirectional BFS when in-neighbors are available (UNDIRECTED, or DIRECTED
+     * built with trackIncoming); otherwise one-sided BFS that stops at t.
      */
     public static List<String> shortestPathUnweighted(Graph g, String s, String t) {
         if (g == null || s == null || t == null) return List.of();
         if (!g.containsVertex(s) || !g.containsVertex(t)) return List.of();
 
-        Result r = run(g, s);
-        if (!r.distance.containsKey(t)) return List.of(); // unreachable
+        if (g.hasIncomingIndex()) return BidirectionalBFS.shortestPath(g, s, t);
+
+        return run(g, s, TraversalSpec.until(t)).pathTo(t); // stop as soon as t is dequeued
+    }
+
+    /**
+     * BFS over a CompactGraph: int queue + int[] distance/parent, converted to Result at the end.
+     * Same order/distance/parent as run(Graph, ...) on the equivalent Graph.
+     */
+    public static Result run(CompactGraph g, String start) {
+        return run(g, start, TraversalSpec.UNBOUNDED);
+    }
+
+    public static Result run(CompactGraph g, String start, TraversalSpec spec) {
+        int s = (g == null) ? -1 : g.id(start);
+        if (s < 0) return new Result(List.of(), Map.of(), Map.of());
+
+        TraversalMetrics.Probe probe = TraversalMetrics.start("bfs");
+        int n = g.vertexCount();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, -1);
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
 
-        LinkedList<String> path = new LinkedList<>();
-        String cur = t;
-        while (cur != null) {
-            path.addFirst(cur);
-            cur = r.parent.get(cur);
+        dist[s] = 0;
+        parent[s] = -1;
+        queue[tail++] = s;
+
+        while (head < tail) {
+            int u = queue[head++];
+            if (probe != null) probe.dequeued(dist[u]);
+            if (spec.shouldStop(g.name(u), head)) break;
+            if (dist[u] >= spec.maxDepth) continue;
+
+            for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+                int v = g.target(a);
+                if (dist[v] < 0) {
+                    dist[v] = dist[u] + 1;
+                    parent[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+            if (probe != null) probe.expand(g.degree(u), tail - head);
         }
-        return (!path.isEmpty() && path.getFirst().equals(s)) ? path : List.of();
+
+        if (probe != null) probe.traversed(head);
+        return views(IdViews.of(g), queue, head, tail, dist, parent);
+    }
+
+    public static List<String> shortestPathUnweighted(CompactGraph g, String s, String t) {
+        if (g == null || !g.containsVertex(s) || !g.containsVertex(t)) return List.of();
+
+        return run(g, s, TraversalSpec.until(t)).pathTo(t);
+    }
+
+    /**
+     * Parallel level-synchronous BFS (direction-optimizing, top-down / bottom-up per level).
+     * threads <= 0 -> all available processors.
+     *
+     * distance is the same as run(); order is level by level, ascending vertex order inside a level.
+     * deterministic = true -> parent is the smallest vertex of the previous level adjacent to v
+     * (stable across runs and thread counts); false -> whichever thread claimed v first.
+     */
+    public static Result runParallel(CompactGraph g, String start, int threads, boolean deterministic) {
+        int s = (g == null) ? -1 : g.id(start);
+        if (s < 0) return new Result(List.of(), Map.of(), Map.of());
+
+        int p = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return ParallelBFS.run(g, s, p, deterministic);
+    }
+
+    public static Result runParallel(Graph g, String start, int threads, boolean deterministic) {
+        if (g == null || !g.containsVertex(start)) return new Result(List.of(), Map.of(), Map.of());
+        return runParallel(g.freeze(), start, threads, deterministic);
     }
 }
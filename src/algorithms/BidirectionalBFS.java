@@ -0,0 +1,173 @@
+package algorithms;
+
+import graph.Graph;
+import graph.IdNeighborVisitor;
+
+import java.util.*;
+
+/**
+ * Point-to-point shortest path: BFS from s (out-edges) and from t (in-edges) expanded one full
+ * level at a time, always on the smaller frontier, until the two balls touch.
+ *
+ * The returned path is the lexicographically smallest shortest path, which is exactly the
+ * path BFS.run parents give (BFS with sorted neighbors orders every level lexicographically).
+ * DIRECTED graphs need Graph.hasIncomingIndex(). State is kept per side in IdSlots, so the cost
+ * follows the two balls, not the size of the graph.
+ */
+final class BidirectionalBFS {
+
+    private BidirectionalBFS() {
+    }
+
+    static List<String> shortestPath(Graph g, String s, String t) {
+        if (s.equals(t)) return List.of(s);
+
+        Side ds = new Side(g.idBound());
+        Side dt = new Side(g.idBound());
+        List<int[]> forwardLevels = new ArrayList<>();
+
+        int si = g.idOf(s), ti = g.idOf(t);
+        ds.put(si, 0);
+        dt.put(ti, 0);
+        int[] fFront = {si};
+        int[] bFront = {ti};
+        forwardLevels.add(fFront);
+        int a = 0, b = 0; // fully explored radius around s / around t
+
+        Expander ex = new Expander();
+        boolean met = false;
+        while (!met && fFront.length > 0 && bFront.length > 0) {
+            if (fFront.length <= bFront.length) {
+                fFront = ex.expand(g, fFront, ds, dt, a + 1, true);
+                forwardLevels.add(fFront);
+                a++;
+            } else {
+                bFront = ex.expand(g, bFront, dt, ds, b + 1, false);
+                b++;
+            }
+            met = ex.met;
+        }
+        if (!met) return List.of();
+
+        // Every vertex first labeled by both sides has ds + dt == a + b (nothing shorter was missed).
+        int d = a + b;
+
+        // good = forward-ball vertices on some shortest s-t path (by forward slot),
+        // by back-propagation from level a
+        boolean[] good = new boolean[ds.slots.size()];
+        for (int v : forwardLevels.get(a)) {
+            if (dt.get(v) == b) good[ds.slots.slotOf(v)] = true;
+        }
+        FirstOnPath probe = new FirstOnPath(ds, dt, good);
+        for (int k = a - 1; k >= 0; k--) {
+            probe.forwardLevel = k + 1;
+            for (int x : forwardLevels.get(k)) {
+                if (probe.find(g, x) >= 0) good[ds.slots.slotOf(x)] = true;
+            }
+        }
+
+        // greedy walk: smallest neighbor that is still on a shortest path
+        List<String> path = new ArrayList<>(d + 1);
+        path.add(s);
+        int cur = si;
+        for (int i = 1; i <= d; i++) {
+            if (i <= a) {
+                probe.forwardLevel = i;
+            } else {
+                probe.forwardLevel = -1;
+                probe.backwardDist = d - i;
+            }
+            cur = probe.find(g, cur);
+            path.add(g.nameOf(cur));
+        }
+        return path;
+    }
+
+    // Distances of one side: id -> slot -> dist (-1 = not labeled)
+    private static final class Side {
+        final IdSlots slots;
+        int[] dist = new int[16];
+
+        Side(int idBound) {
+            slots = new IdSlots(idBound);
+        }
+
+        int get(int v) {
+            int k = slots.slotOf(v);
+            return k < 0 ? -1 : dist[k];
+        }
+
+        void put(int v, int d) {
+            int k = slots.add(v);
+            if (k == dist.length) dist = Arrays.copyOf(dist, k * 2);
+            dist[k] = d;
+        }
+    }
+
+    // Finds the smallest out-neighbor of x that is on a shortest path at the requested position:
+    // forwardLevel >= 0 -> ds == forwardLevel and good; otherwise dt == backwardDist.
+    private static final class FirstOnPath implements IdNeighborVisitor {
+        final Side ds, dt;
+        final boolean[] good;
+        int forwardLevel, backwardDist;
+        int found;
+
+        FirstOnPath(Side ds, Side dt, boolean[] good) {
+            this.ds = ds;
+            this.dt = dt;
+            this.good = good;
+        }
+
+        int find(Graph g, int x) {
+            found = -1;
+            g.forEachNeighborId(x, this);
+            return found;
+        }
+
+        @Override
+        public boolean visit(int w) {
+            boolean onPath;
+            if (forwardLevel >= 0) {
+                int k = ds.slots.slotOf(w);
+                onPath = k >= 0 && ds.dist[k] == forwardLevel && good[k];
+            } else {
+                onPath = dt.get(w) == backwardDist;
+            }
+            if (onPath) found = w;
+            return !onPath;
+        }
+    }
+
+    // Labels the next level (dist = depth) of one side; met = some new vertex is labeled by the other side.
+    private static final class Expander implements IdNeighborVisitor {
+        int[] next = new int[16];
+        int size;
+        Side mine, other;
+        int depth;
+        boolean met;
+
+        int[] expand(Graph g, int[] frontier, Side mine, Side other, int depth, boolean forward) {
+            this.mine = mine;
+            this.other = other;
+            this.depth = depth;
+            size = 0;
+            met = false;
+            for (int u : frontier) {
+                if (forward) g.forEachNeighborId(u, this);
+                else g.forEachInNeighborId(u, this);
+            }
+            return Arrays.copyOf(next, size);
+        }
+
+        @Override
+        public boolean visit(int v) {
+            if (!mine.slots.contains(v)) {
+                mine.put(v, depth);
+                if (size == next.length) next = Arrays.copyOf(next, size * 2);
+                next[size++] = v;
+                if (other.slots.contains(v)) met = true;
+            }
+            return true;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package algorithms;
 
+import graph.CompactGraph;
 import graph.Graph;
+import graph.IdNeighborVisitor;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 public class DFS {
 
@@ -14,38 +17,103 @@ public class DFS {
             this.order = order;
             this.parent = parent;
         }
+
+        /**
+         * DFS-tree path start -> t (inclusive), rebuilt on demand from parent; empty if t was not visited.
+         */
+        public List<String> pathTo(String t) {
+            if (t == null || !parent.containsKey(t)) return List.of();
+            LinkedList<String> path = new LinkedList<>();
+            for (String cur = t; cur != null; cur = parent.get(cur)) path.addFirst(cur);
+            return path;
+        }
     }
 
     /**
-     * DFS recursive from start.
-     * Deterministic because Graph.neighbors(u) is sorted.
+     * Lazy DFS in recursive order (same order and spec semantics as recursive(g, start, spec)):
+     * the next vertex is searched only when the stream pulls it.
+     */
+    public static Stream<String> stream(Graph g, String start, TraversalSpec spec) {
+        return TraversalStreams.dfs(g, start, spec);
+    }
+
+    public static Stream<String> stream(Graph g, String start) {
+        return stream(g, start, TraversalSpec.UNBOUNDED);
+    }
+
+    public static Stream<String> stream(CompactGraph g, String start, TraversalSpec spec) {
+        return TraversalStreams.dfs(g, start, spec);
+    }
+
+    public static Stream<String> stream(CompactGraph g, String start) {
+        return stream(g, start, TraversalSpec.UNBOUNDED);
+    }
+
+    /**
+     * DFS in recursive order from start: visit order and parents are exactly those of the
+     * textbook recursive DFS, but the call stack is explicit, so long chains don't overflow.
+     * Deterministic because Graph neighbors are sorted.
      */
     public static Result recursive(Graph g, String start) {
+        return recursive(g, start, TraversalSpec.UNBOUNDED);
+    }
+
+    /**
+     * Recursive-order DFS limited by spec (maxDepth = DFS tree depth, stop vertex, maxVisited).
+     */
+    public static Result recursive(Graph g, String start, TraversalSpec spec) {
         if (g == null || start == null || !g.containsVertex(start)) {
             return new Result(List.of(), Map.of());
         }
 
-        List<String> order = new ArrayList<>();
-        Map<String, String> parent = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-
-        parent.put(start, null);
-        dfsRec(g, start, visited, parent, order);
-
-        return new Result(order, parent);
-    }
+        TraversalMetrics.Probe probe = TraversalMetrics.start("dfs.recursive");
+        // visited ids get slots in visit order (== order); parent is per slot
+        IdSlots visited = new IdSlots(g.idBound());
+        int[] parent = new int[16];
+        // frame = (vertex, last neighbor scanned, -1 = none yet); depth of the top vertex = path size - 1
+        int[] path = new int[16];
+        int[] last = new int[16];
+        int depth = 0;
 
-    private static void dfsRec(Graph g, String u, Set<String> visited,
-                               Map<String, String> parent, List<String> order) {
-        visited.add(u);
-        order.add(u);
+        int v = g.idOf(start);
+        int vParent = -1;
+        while (true) {
+            // enter v
+            int k = visited.add(v);
+            if (k == parent.length) parent = Arrays.copyOf(parent, k * 2);
+            parent[k] = vParent;
+            if (spec.shouldStop(g.nameOf(v), k + 1)) break;
+            if (depth < spec.maxDepth) { // depth == depth of v
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                    last = Arrays.copyOf(last, depth * 2);
+                }
+                path[depth] = v;
+                last[depth++] = -1;
+                if (probe != null) probe.expand(g.degreeOfId(v), depth);
+            }
 
-        for (String v : g.neighbors(u)) {
-            if (!visited.contains(v)) {
-                parent.put(v, u);
-                dfsRec(g, v, visited, parent, order);
+            // next undiscovered neighbor of the deepest frame, popping finished frames
+            v = -1;
+            while (v < 0 && depth > 0) {
+                int u = path[depth - 1];
+                int w = last[depth - 1];
+                do {
+                    w = g.nextNeighborId(u, w);
+                } while (w >= 0 && visited.contains(w));
+                if (w < 0) {
+                    depth--;
+                } else {
+                    last[depth - 1] = w;
+                    vParent = u;
+                    v = w;
+                }
             }
+            if (v < 0) break;
         }
+
+        if (probe != null) probe.traversed(visited.size());
+        return views(IdViews.of(g), visited, visited.size(), parent);
     }
 
     /**
@@ -53,38 +121,138 @@ public class DFS {
      * To match recursive order deterministically, we push neighbors in reverse order.
      */
     public static Result iterative(Graph g, String start) {
+        return iterative(g, start, TraversalSpec.UNBOUNDED);
+    }
+
+    /**
+     * Iterative DFS limited by spec (depth = number of stack hops from start).
+     */
+    public static Result iterative(Graph g, String start, TraversalSpec spec) {
         if (g == null || start == null || !g.containsVertex(start)) {
             return new Result(List.of(), Map.of());
         }
 
-        List<String> order = new ArrayList<>();
-        Map<String, String> parent = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-
-        Deque<String> stack = new ArrayDeque<>();
-        stack.push(start);
-        parent.put(start, null);
+        TraversalMetrics.Probe probe = TraversalMetrics.start("dfs.iterative");
+        IterativeState st = new IterativeState(g.idBound());
+        st.push(g.idOf(start), 0, -1);
 
-        while (!stack.isEmpty()) {
-            String u = stack.pop();
-            if (visited.contains(u)) continue;
+        while (st.top > 0) {
+            int du = st.depths[--st.top];
+            int u = st.stack[st.top];
+            int k = st.seen.slotOf(u);
+            if (st.visited[k]) continue;
 
-            visited.add(u);
-            order.add(u);
+            st.visited[k] = true;
+            st.enter(u);
+            if (spec.shouldStop(g.nameOf(u), st.count)) break;
+            if (du >= spec.maxDepth) continue;
 
-            List<String> neigh = g.neighbors(u);
             // reverse push so that smallest neighbor processed first
-            for (int i = neigh.size() - 1; i >= 0; i--) {
-                String v = neigh.get(i);
-                if (!visited.contains(v)) {
-                    // set parent only first time we see v (avoid overwriting)
-                    parent.putIfAbsent(v, u);
-                    stack.push(v);
+            st.u = u;
+            st.du = du;
+            g.forEachNeighborIdReverse(u, st);
+            if (probe != null) probe.expand(g.degreeOfId(u), st.top);
+        }
+
+        if (probe != null) probe.traversed(st.count);
+        return st.views(IdViews.of(g));
+    }
+
+    // State of one iterative DFS, all growing with the touched part: ids seen (pushed at least once)
+    // get slots with the first parent seen and a visited flag; int stack of (vertex, depth).
+    private static final class IterativeState implements IdNeighborVisitor {
+        final IdSlots seen;
+        int[] parent = new int[16];       // per slot, -1 = start
+        boolean[] visited = new boolean[16];
+        int[] order = new int[16];
+        int count;
+        int[] stack = new int[16];
+        int[] depths = new int[16];
+        int top;
+        int u;
+        int du;
+
+        IterativeState(int idBound) {
+            seen = new IdSlots(idBound);
+        }
+
+        void push(int v, int depth, int p) {
+            if (!seen.contains(v)) { // set parent only first time we see v (avoid overwriting)
+                int k = seen.add(v);
+                if (k == parent.length) {
+                    parent = Arrays.copyOf(parent, k * 2);
+                    visited = Arrays.copyOf(visited, k * 2);
                 }
+                parent[k] = p;
             }
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+                depths = Arrays.copyOf(depths, top * 2);
+            }
+            depths[top] = depth;
+            stack[top++] = v;
         }
 
-        return new Result(order, parent);
+        void enter(int v) {
+            if (count == order.length) order = Arrays.copyOf(order, count * 2);
+            order[count++] = v;
+        }
+
+        @Override
+        public boolean visit(int v) { // neighbor v of u
+            int k = seen.slotOf(v);
+            if (k < 0 || !visited[k]) push(v, du + 1, u);
+            return true;
+        }
+
+        // a vertex is in parent iff it was visited
+        Result views(IdViews.Names names) {
+            int[] p = parent;
+            boolean[] vis = visited;
+            return new Result(IdViews.list(names, order, 0, count),
+                    IdViews.map(names, order, count, v -> {
+                        int k = seen.slotOf(v);
+                        return k >= 0 && vis[k];
+                    }, v -> {
+                        int k = p[seen.slotOf(v)];
+                        return k < 0 ? null : names.name(k);
+                    }));
+        }
+    }
+
+    // Pushes unvisited neighbors of u (int stack, every arc pushes at most once).
+    private static final class StackPusher implements IdNeighborVisitor {
+        final boolean[] visited;
+        final int[] stack;
+        int top;
+
+        StackPusher(Graph g) {
+            visited = new boolean[g.idBound()];
+            stack = new int[g.edgeCountStored() + 1];
+        }
+
+        void push(int v) {
+            stack[top++] = v;
+        }
+
+        @Override
+        public boolean visit(int v) {
+            if (!visited[v]) push(v);
+            return true;
+        }
+    }
+
+    // order = slots [0, count) of visited (visit order); parent per slot
+    private static Result views(IdViews.Names names, IdSlots visited, int count, int[] parent) {
+        return new Result(IdViews.list(names, visited.ids(), 0, count),
+                IdViews.map(names, visited, k -> parent[k] < 0 ? null : names.name(parent[k])));
+    }
+
+    // order/parent views over int state; a vertex is in parent iff it was visited
+    private static Result views(IdViews.Names names, int[] order, int count, boolean[] visited, int[] parent) {
+        return new Result(IdViews.list(names, order, 0, count),
+                IdViews.map(names, order, count, v -> v < visited.length && visited[v],
+                        v -> parent[v] < 0 ? null : names.name(parent[v])));
     }
 
     /**
@@ -95,28 +263,23 @@ public class DFS {
         if (g == null) return List.of();
 
         List<List<String>> comps = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
+        StackPusher sp = new StackPusher(g);
 
-        for (String start : g.vertices()) { // vertices are sorted
-            if (visited.contains(start)) continue;
+        for (String name : g.vertices()) { // vertices are sorted
+            int start = g.idOf(name);
+            if (sp.visited[start]) continue;
 
             List<String> comp = new ArrayList<>();
             // BFS/DFS for component - use stack DFS
-            Deque<String> st = new ArrayDeque<>();
-            st.push(start);
+            sp.push(start);
 
-            while (!st.isEmpty()) {
-                String u = st.pop();
-                if (visited.contains(u)) continue;
+            while (sp.top > 0) {
+                int u = sp.stack[--sp.top];
+                if (sp.visited[u]) continue;
 
-                visited.add(u);
-                comp.add(u);
-
-                List<String> neigh = g.neighbors(u);
-                for (int i = neigh.size() - 1; i >= 0; i--) {
-                    String v = neigh.get(i);
-                    if (!visited.contains(v)) st.push(v);
-                }
+                sp.visited[u] = true;
+                comp.add(g.nameOf(u));
+                g.forEachNeighborIdReverse(u, sp);
             }
 
             Collections.sort(comp); // make component output stable
@@ -127,33 +290,202 @@ public class DFS {
     }
 
     /**
-     * Cycle detection for UNDIRECTED graphs using DFS + parent check.
+     * Cycle detection for UNDIRECTED graphs using DFS + parent check, on a frozen copy (O(n + m)).
      * Returns true if a cycle exists.
      */
     public static boolean hasCycleUndirected(Graph g) {
-        if (g == null) return false;
+        return g != null && hasCycleUndirected(g.freeze()); // int stacks of DfsEngine, no per-frame objects
+    }
+
+    // ---------- CompactGraph versions (int ids, same results as the Graph versions) ----------
 
-        Set<String> visited = new HashSet<>();
-        for (String start : g.vertices()) {
-            if (!visited.contains(start)) {
-                if (cycleDfsUndirected(g, start, null, visited)) return true;
+    public static Result recursive(CompactGraph g, String start) {
+        int s = (g == null) ? -1 : g.id(start);
+        if (s < 0) return new Result(List.of(), Map.of());
+
+        TraversalMetrics.Probe probe = TraversalMetrics.start("dfs.recursive");
+        int[] order = new int[g.vertexCount()];
+        int[] count = {0};
+        DfsEngine dfs = new DfsEngine(g);
+        DfsEngine.Visitor visitor = new DfsEngine.Visitor() {
+            @Override
+            public boolean discover(int u, int pre) {
+                order[count[0]++] = u;
+                return true;
+            }
+        };
+        dfs.run(s, probe == null ? visitor : probed(visitor, g, probe));
+
+        int[] parent = new int[g.vertexCount()];
+        for (int i = 0; i < count[0]; i++) parent[order[i]] = dfs.parent(order[i]);
+        if (probe != null) probe.traversed(count[0]);
+        return toResult(g, order, count[0], parent);
+    }
+
+    // Records degree and recursion depth (discovered, unfinished vertices) around another visitor
+    private static DfsEngine.Visitor probed(DfsEngine.Visitor inner, CompactGraph g, TraversalMetrics.Probe probe) {
+        return new DfsEngine.Visitor() {
+            int depth;
+
+            @Override
+            public boolean discover(int u, int pre) {
+                probe.expand(g.degree(u), ++depth);
+                return inner.discover(u, pre);
+            }
+
+            @Override
+            public boolean finish(int u, int post) {
+                depth--;
+                return inner.finish(u, post);
             }
+
+            @Override
+            public boolean treeEdge(int u, int v) {
+                return inner.treeEdge(u, v);
+            }
+
+            @Override
+            public boolean backEdge(int u, int v) {
+                return inner.backEdge(u, v);
+            }
+
+            @Override
+            public boolean forwardOrCrossEdge(int u, int v) {
+                return inner.forwardOrCrossEdge(u, v);
+            }
+        };
+    }
+
+    public static Result iterative(CompactGraph g, String start) {
+        int s = (g == null) ? -1 : g.id(start);
+        if (s < 0) return new Result(List.of(), Map.of());
+
+        TraversalMetrics.Probe probe = TraversalMetrics.start("dfs.iterative");
+        int n = g.vertexCount();
+        boolean[] visited = new boolean[n];
+        int[] parent = new int[n];
+        Arrays.fill(parent, -2); // -2 = not seen yet, -1 = start
+        int[] order = new int[n];
+        int count = 0;
+
+        int[] stack = new int[g.edgeCountStored() + 1]; // every arc pushes at most once
+        int sp = 0;
+        stack[sp++] = s;
+        parent[s] = -1;
+
+        while (sp > 0) {
+            int u = stack[--sp];
+            if (visited[u]) continue;
+
+            visited[u] = true;
+            order[count++] = u;
+
+            // reverse push so that smallest neighbor processed first
+            for (int a = g.end(u) - 1, begin = g.begin(u); a >= begin; a--) {
+                int v = g.target(a);
+                if (!visited[v]) {
+                    if (parent[v] == -2) parent[v] = u;
+                    stack[sp++] = v;
+                }
+            }
+            if (probe != null) probe.expand(g.degree(u), sp);
         }
-        return false;
+
+        if (probe != null) probe.traversed(count);
+        return toResult(g, order, count, parent);
     }
 
-    private static boolean cycleDfsUndirected(Graph g, String u, String parent,
-                                              Set<String> visited) {
-        visited.add(u);
+    private static Result toResult(CompactGraph g, int[] order, int count, int[] parent) {
+        boolean[] visited = new boolean[g.vertexCount()];
+        for (int i = 0; i < count; i++) visited[order[i]] = true;
+        return views(IdViews.of(g), order, count, visited, parent);
+    }
 
-        for (String v : g.neighbors(u)) {
-            if (!visited.contains(v)) {
-                if (cycleDfsUndirected(g, v, u, visited)) return true;
-            } else {
-                // visited neighbor that is not parent => cycle
-                if (parent == null || !v.equals(parent)) return true;
+    public static List<List<String>> connectedComponentsUndirected(CompactGraph g) {
+        if (g == null) return List.of();
+
+        int n = g.vertexCount();
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[g.edgeCountStored() + 1];
+        int[] comp = new int[n];
+        List<List<String>> comps = new ArrayList<>();
+
+        for (int r = 0; r < n; r++) { // starts in name order
+            int start = g.idAtRank(r);
+            if (visited[start]) continue;
+
+            int size = 0, sp = 0;
+            stack[sp++] = start;
+            while (sp > 0) {
+                int u = stack[--sp];
+                if (visited[u]) continue;
+
+                visited[u] = true;
+                comp[size++] = u;
+
+                for (int a = g.end(u) - 1, begin = g.begin(u); a >= begin; a--) {
+                    int v = g.target(a);
+                    if (!visited[v]) stack[sp++] = v;
+                }
+            }
+
+            for (int i = 0; i < size; i++) comp[i] = g.rank(comp[i]);
+            Arrays.sort(comp, 0, size); // rank order == name order
+            List<String> names = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) names.add(g.name(g.idAtRank(comp[i])));
+            comps.add(names);
+        }
+
+        return comps;
+    }
+
+    /**
+     * Same output as connectedComponentsUndirected; parallel = true freezes the graph and
+     * uses all available processors (see connectedComponentsParallel).
+     */
+    public static List<List<String>> connectedComponentsUndirected(Graph g, boolean parallel) {
+        if (!parallel || g == null) return connectedComponentsUndirected(g);
+        return connectedComponentsParallel(g.freeze(), 0);
+    }
+
+    /**
+     * Parallel connected components (Afforest, atomic union-find labels) for UNDIRECTED graphs.
+     * Output is identical to connectedComponentsUndirected(g). threads <= 0 -> all processors.
+     * DIRECTED graphs fall back to the sequential method (its result depends on edge direction).
+     */
+    public static List<List<String>> connectedComponentsParallel(CompactGraph g, int threads) {
+        if (g == null) return List.of();
+        if (g.isDirected()) return connectedComponentsUndirected(g);
+
+        int n = g.vertexCount();
+        int[] label = ParallelComponents.labels(g, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+
+        // one pass in name order: a component's list is opened at its smallest vertex,
+        // so lists come out sorted and ordered by their smallest vertex, like the sequential version
+        List<List<String>> comps = new ArrayList<>();
+        int[] index = new int[n];
+        Arrays.fill(index, -1);
+        for (int r = 0; r < n; r++) {
+            int v = g.idAtRank(r);
+            if (index[label[v]] < 0) {
+                index[label[v]] = comps.size();
+                comps.add(new ArrayList<>());
             }
+            comps.get(index[label[v]]).add(g.name(v));
         }
-        return false;
+        return comps;
+    }
+
+    public static boolean hasCycleUndirected(CompactGraph g) {
+        if (g == null) return false;
+
+        DfsEngine dfs = new DfsEngine(g);
+        // an arc back into the DFS path that is not the tree edge to the parent closes a cycle
+        return !dfs.runAll(new DfsEngine.Visitor() {
+            @Override
+            public boolean backEdge(int u, int v) {
+                return v == dfs.parent(u);
+            }
+        });
     }
 }
@@ -0,0 +1,135 @@
+package algorithms;
+
+import graph.CompactGraph;
+
+import java.util.Arrays;
+
+/**
+ * Event-driven DFS over a CompactGraph with explicit int stacks (no recursion, depth is only
+ * limited by memory). Visits vertices and arcs in exactly the order of the recursive DFS
+ * (rows are sorted), reporting:
+ *  - discover(u) / finish(u)   with pre/post timestamps from one shared clock;
+ *  - treeEdge(u, v)            v was undiscovered, it is discovered next;
+ *  - backEdge(u, v)            v is on the current DFS path (includes the reverse of the tree
+ *                              edge in UNDIRECTED graphs: check v == parent(u));
+ *  - forwardOrCrossEdge(u, v)  v is already finished.
+ * Any callback returning false stops the whole traversal.
+ *
+ * State survives between run() calls, so several roots build one DFS forest; reset() clears it.
+ */
+public final class DfsEngine {
+
+    public interface Visitor {
+        default boolean discover(int u, int pre) {
+            return true;
+        }
+
+        default boolean finish(int u, int post) {
+            return true;
+        }
+
+        default boolean treeEdge(int u, int v) {
+            return true;
+        }
+
+        default boolean backEdge(int u, int v) {
+            return true;
+        }
+
+        default boolean forwardOrCrossEdge(int u, int v) {
+            return true;
+        }
+    }
+
+    private final CompactGraph g;
+    private final int[] pre;      // -1 = undiscovered
+    private final int[] post;     // -1 = not finished
+    private final int[] parent;   // -1 = root
+    private final int[] stack;    // current DFS path
+    private final int[] cursor;   // next arc to scan for each path entry
+    private int clock;
+
+    public DfsEngine(CompactGraph g) {
+        this.g = g;
+        int n = g.vertexCount();
+        pre = new int[n];
+        post = new int[n];
+        parent = new int[n];
+        stack = new int[n];
+        cursor = new int[n];
+        reset();
+    }
+
+    public void reset() {
+        Arrays.fill(pre, -1);
+        Arrays.fill(post, -1);
+        Arrays.fill(parent, -1);
+        clock = 0;
+    }
+
+    /**
+     * DFS tree from start (nothing happens if start was already discovered).
+     * Returns false if a callback stopped the traversal.
+     */
+    public boolean run(int start, Visitor visitor) {
+        if (pre[start] >= 0) return true;
+        int sp = 0;
+        pre[start] = clock++;
+        if (!visitor.discover(start, pre[start])) return false;
+        stack[sp] = start;
+        cursor[sp++] = g.begin(start);
+
+        while (sp > 0) {
+            int u = stack[sp - 1];
+            int a = cursor[sp - 1];
+            if (a == g.end(u)) {
+                sp--;
+                post[u] = clock++;
+                if (!visitor.finish(u, post[u])) return false;
+                continue;
+            }
+            cursor[sp - 1] = a + 1;
+
+            int v = g.target(a);
+            if (pre[v] < 0) {
+                if (!visitor.treeEdge(u, v)) return false;
+                parent[v] = u;
+                pre[v] = clock++;
+                if (!visitor.discover(v, pre[v])) return false;
+                stack[sp] = v;
+                cursor[sp++] = g.begin(v);
+            } else if (post[v] < 0) {
+                if (!visitor.backEdge(u, v)) return false;
+            } else {
+                if (!visitor.forwardOrCrossEdge(u, v)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * DFS forest: roots are tried in name order (g.idAtRank), also on a reordered graph.
+     */
+    public boolean runAll(Visitor visitor) {
+        for (int r = 0; r < pre.length; r++) {
+            if (!run(g.idAtRank(r), visitor)) return false;
+        }
+        return true;
+    }
+
+    public boolean isDiscovered(int v) {
+        return pre[v] >= 0;
+    }
+
+    public int parent(int v) {
+        return parent[v];
+    }
+
+    public int pre(int v) {
+        return pre[v];
+    }
+
+    public int post(int v) {
+        return post[v];
+    }
+}
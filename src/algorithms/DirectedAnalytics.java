@@ -0,0 +1,181 @@
+package algorithms;
+
+import graph.CompactGraph;
+import graph.Graph;
+
+import java.util.*;
+
+/**
+ * Analytics for DIRECTED graphs, linear time and without recursion (safe on very deep graphs):
+ * - stronglyConnectedComponents: Tarjan on top of DfsEngine;
+ * - topologicalOrder:            Kahn's algorithm;
+ * - findCycle / hasCycle:        back edge of a DFS.
+ *
+ * UNDIRECTED graphs are treated as symmetric digraphs (every edge is a 2-cycle).
+ * Graph versions freeze the graph first.
+ */
+public class DirectedAnalytics {
+
+    /**
+     * Strongly connected components; each component sorted, components ordered by their
+     * smallest vertex (same format as DFS.connectedComponentsUndirected).
+     */
+    public static List<List<String>> stronglyConnectedComponents(CompactGraph g) {
+        if (g == null) return List.of();
+
+        int n = g.vertexCount();
+        int[] comp = new int[n];
+        Tarjan tarjan = new Tarjan(new DfsEngine(g), comp);
+        tarjan.dfs.runAll(tarjan);
+
+        // one pass in name order: lists come out sorted and ordered by smallest vertex
+        List<List<String>> comps = new ArrayList<>(tarjan.count);
+        int[] index = new int[tarjan.count];
+        Arrays.fill(index, -1);
+        for (int r = 0; r < n; r++) {
+            int v = g.idAtRank(r);
+            int c = comp[v];
+            if (index[c] < 0) {
+                index[c] = comps.size();
+                comps.add(new ArrayList<>());
+            }
+            comps.get(index[c]).add(g.name(v));
+        }
+        return comps;
+    }
+
+    public static List<List<String>> stronglyConnectedComponents(Graph g) {
+        if (g == null) return List.of();
+        return stronglyConnectedComponents(g.freeze());
+    }
+
+    // Tarjan's lowlink bookkeeping as DFS events; comp[v] = SCC number in completion order
+    private static final class Tarjan implements DfsEngine.Visitor {
+        final DfsEngine dfs;
+        final int[] comp;
+        final int[] low;
+        final boolean[] onStack;
+        final int[] stack;
+        int sp;
+        int count;
+
+        Tarjan(DfsEngine dfs, int[] comp) {
+            this.dfs = dfs;
+            this.comp = comp;
+            this.low = new int[comp.length];
+            this.onStack = new boolean[comp.length];
+            this.stack = new int[comp.length];
+        }
+
+        @Override
+        public boolean discover(int u, int pre) {
+            low[u] = pre;
+            stack[sp++] = u;
+            onStack[u] = true;
+            return true;
+        }
+
+        @Override
+        public boolean backEdge(int u, int v) {
+            low[u] = Math.min(low[u], dfs.pre(v));
+            return true;
+        }
+
+        @Override
+        public boolean forwardOrCrossEdge(int u, int v) {
+            if (onStack[v]) low[u] = Math.min(low[u], dfs.pre(v));
+            return true;
+        }
+
+        @Override
+        public boolean finish(int u, int post) {
+            if (low[u] == dfs.pre(u)) {
+                int v;
+                do {
+                    v = stack[--sp];
+                    onStack[v] = false;
+                    comp[v] = count;
+                } while (v != u);
+                count++;
+            }
+            int p = dfs.parent(u);
+            if (p >= 0) low[p] = Math.min(low[p], low[u]);
+            return true;
+        }
+    }
+
+    /**
+     * Topological order by Kahn's algorithm; sources are taken in FIFO order starting from the
+     * sorted zero in-degree vertices, so the result is deterministic.
+     * Returns an empty list if the graph has a cycle.
+     */
+    public static List<String> topologicalOrder(CompactGraph g) {
+        if (g == null) return List.of();
+
+        int n = g.vertexCount();
+        int[] indegree = new int[n];
+        for (int a = 0; a < g.edgeCountStored(); a++) indegree[g.target(a)]++;
+
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int r = 0; r < n; r++) {
+            int v = g.idAtRank(r);
+            if (indegree[v] == 0) queue[tail++] = v;
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+                int v = g.target(a);
+                if (--indegree[v] == 0) queue[tail++] = v;
+            }
+        }
+        if (tail < n) return List.of(); // vertices left with indegree > 0 lie on or behind a cycle
+
+        List<String> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) order.add(g.name(queue[i]));
+        return order;
+    }
+
+    public static List<String> topologicalOrder(Graph g) {
+        if (g == null) return List.of();
+        return topologicalOrder(g.freeze());
+    }
+
+    /**
+     * Some directed cycle as [v1, v2, ..., vk] with arcs v1->v2->...->vk->v1; empty if acyclic.
+     * Deterministic: the first cycle closed by the DFS forest rooted in sorted order.
+     */
+    public static List<String> findCycle(CompactGraph g) {
+        if (g == null) return List.of();
+
+        DfsEngine dfs = new DfsEngine(g);
+        int[] closing = {-1, -1};
+        dfs.runAll(new DfsEngine.Visitor() {
+            @Override
+            public boolean backEdge(int u, int v) {
+                closing[0] = u;
+                closing[1] = v;
+                return false;
+            }
+        });
+        if (closing[0] < 0) return List.of();
+
+        LinkedList<String> cycle = new LinkedList<>();
+        for (int cur = closing[0]; cur != closing[1]; cur = dfs.parent(cur)) cycle.addFirst(g.name(cur));
+        cycle.addFirst(g.name(closing[1]));
+        return cycle;
+    }
+
+    public static List<String> findCycle(Graph g) {
+        if (g == null) return List.of();
+        return findCycle(g.freeze());
+    }
+
+    public static boolean hasCycle(CompactGraph g) {
+        return !findCycle(g).isEmpty();
+    }
+
+    public static boolean hasCycle(Graph g) {
+        return !findCycle(g).isEmpty();
+    }
+}
@@ -0,0 +1,305 @@
+package algorithms;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.IdNeighborVisitor;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Friend recommendation on an UNDIRECTED friendship graph: the top-k non-friends of S (vertices
+ * at distance exactly 2) ranked by how much their neighborhood overlaps with S's.
+ *
+ * One pass over the wedges S - u - v accumulates the common-neighbor count (and Adamic-Adar sum)
+ * of every candidate v in arrays indexed by vertex id, friends are skipped with a bitset and a
+ * bounded heap keeps the k best: cost = sum of the friends' degrees + candidates * log k, instead
+ * of one neighbors() intersection per 2-hop vertex.
+ *
+ * Order: score descending, ties by name. DIRECTED graph, missing S or k <= 0 -> empty list.
+ */
+public class FriendRecommendation {
+
+    public enum Score {
+        /**
+         * |N(S) & N(v)|
+         */
+        COMMON_NEIGHBORS,
+        /**
+         * Sum over common neighbors u of 1 / ln(deg(u)): mutual friends with few friends weigh more.
+         */
+        ADAMIC_ADAR,
+        /**
+         * |N(S) & N(v)| / |N(S) | N(v)|
+         */
+        JACCARD
+    }
+
+    public static class Recommendation {
+        public final String vertex;
+        public final int commonNeighbors;
+        public final double score;
+
+        public Recommendation(String vertex, int commonNeighbors, double score) {
+            this.vertex = vertex;
+            this.commonNeighbors = commonNeighbors;
+            this.score = score;
+        }
+
+        @Override
+        public String toString() {
+            return vertex + "(" + commonNeighbors + (score == commonNeighbors ? "" : String.format(", %.3f", score)) + ")";
+        }
+    }
+
+    public static List<Recommendation> topK(Graph g, String s, int k, Score score) {
+        if (g == null || g.isDirected() || s == null || !g.containsVertex(s) || k <= 0 || score == null) {
+            return List.of();
+        }
+        Rows rows = rows(g);
+        return rank(rows, g.idOf(s), k, score, new Scratch(rows.idBound(), score));
+    }
+
+    public static List<Recommendation> topK(CompactGraph g, String s, int k, Score score) {
+        if (g == null || g.isDirected() || s == null || !g.containsVertex(s) || k <= 0 || score == null) {
+            return List.of();
+        }
+        Rows rows = rows(g);
+        return rank(rows, g.id(s), k, score, new Scratch(rows.idBound(), score));
+    }
+
+    /**
+     * Element i == topK(g, sources[i], k, score); the graph is frozen once.
+     */
+    public static List<List<Recommendation>> topKBatch(Graph g, List<String> sources, int k, Score score, int threads) {
+        return topKBatch(g == null ? null : g.freeze(), sources, k, score, threads);
+    }
+
+    /**
+     * Element i == topK(g, sources[i], k, score). Sources are split over threads workers
+     * (threads <= 0 -> all processors), each reusing one set of per-vertex arrays.
+     */
+    public static List<List<Recommendation>> topKBatch(CompactGraph g, List<String> sources, int k, Score score,
+                                                       int threads) {
+        if (sources == null) return List.of();
+        List<List<Recommendation>> out = new ArrayList<>(Collections.nCopies(sources.size(), List.of()));
+        if (g == null || g.isDirected() || k <= 0 || score == null || sources.isEmpty()) return out;
+
+        Rows rows = rows(g);
+        int p = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(p);
+        try {
+            Parallel.forRange(pool, sources.size(), Math.max(1, sources.size() / (p * 8)), (from, to) -> {
+                Scratch sc = new Scratch(rows.idBound(), score);
+                for (int i = from; i < to; i++) {
+                    String s = sources.get(i);
+                    if (s != null && g.containsVertex(s)) out.set(i, rank(rows, g.id(s), k, score, sc));
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+        return out;
+    }
+
+    /**
+     * |N(a) & N(b)| by merging the two sorted rows; 0 if a vertex is missing.
+     */
+    public static int commonNeighbors(CompactGraph g, String a, String b) {
+        if (g == null || a == null || b == null || !g.containsVertex(a) || !g.containsVertex(b)) return 0;
+        int u = g.id(a), v = g.id(b);
+        int i = g.begin(u), iEnd = g.end(u), j = g.begin(v), jEnd = g.end(v);
+        int common = 0;
+        while (i < iEnd && j < jEnd) {
+            int ri = g.rank(g.target(i)), rj = g.rank(g.target(j)); // rows are sorted by name rank
+            if (ri == rj) {
+                common++;
+                i++;
+                j++;
+            } else if (ri < rj) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return common;
+    }
+
+    public static int commonNeighbors(Graph g, String a, String b) {
+        if (g == null || a == null || b == null || !g.containsVertex(a) || !g.containsVertex(b)) return 0;
+        PrimitiveIterator.OfInt x = g.neighborIdIterator(g.idOf(a)), y = g.neighborIdIterator(g.idOf(b));
+        if (!x.hasNext() || !y.hasNext()) return 0;
+        int common = 0;
+        int u = x.nextInt(), v = y.nextInt();
+        while (true) {
+            int c = u == v ? 0 : g.nameOf(u).compareTo(g.nameOf(v)); // rows are sorted by name
+            if (c <= 0) {
+                if (c == 0) common++;
+                if (!x.hasNext()) break;
+                u = x.nextInt();
+            }
+            if (c >= 0) {
+                if (!y.hasNext()) break;
+                v = y.nextInt();
+            }
+        }
+        return common;
+    }
+
+    // id-level adjacency of Graph / CompactGraph
+    private interface Rows {
+        int idBound();
+
+        int degree(int u);
+
+        void forEachNeighbor(int u, IdNeighborVisitor visitor);
+
+        String name(int id);
+    }
+
+    private static Rows rows(Graph g) {
+        return new Rows() {
+            @Override
+            public int idBound() {
+                return g.idBound();
+            }
+
+            @Override
+            public int degree(int u) {
+                return g.degreeOfId(u);
+            }
+
+            @Override
+            public void forEachNeighbor(int u, IdNeighborVisitor visitor) {
+                g.forEachNeighborId(u, visitor);
+            }
+
+            @Override
+            public String name(int id) {
+                return g.nameOf(id);
+            }
+        };
+    }
+
+    private static Rows rows(CompactGraph g) {
+        return new Rows() {
+            @Override
+            public int idBound() {
+                return g.vertexCount();
+            }
+
+            @Override
+            public int degree(int u) {
+                return g.degree(u);
+            }
+
+            @Override
+            public void forEachNeighbor(int u, IdNeighborVisitor visitor) {
+                for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+                    if (!visitor.visit(g.target(a))) return;
+                }
+            }
+
+            @Override
+            public String name(int id) {
+                return g.name(id);
+            }
+        };
+    }
+
+    // Per-vertex accumulators of one worker; only touched entries are cleared after a source.
+    private static final class Scratch {
+        final long[] friends;  // bitset: S and its neighbors
+        final int[] count;     // common neighbors with S
+        final double[] adamic; // null unless ADAMIC_ADAR
+        int[] touched = new int[64];
+        int touchedSize;
+
+        Scratch(int n, Score score) {
+            friends = new long[(n + 63) >>> 6];
+            count = new int[n];
+            adamic = score == Score.ADAMIC_ADAR ? new double[n] : null;
+        }
+
+        void markFriend(int u) {
+            friends[u >>> 6] |= 1L << u;
+        }
+
+        boolean isFriend(int u) {
+            return (friends[u >>> 6] & (1L << u)) != 0;
+        }
+    }
+
+    private static List<Recommendation> rank(Rows g, int s, int k, Score score, Scratch sc) {
+        sc.markFriend(s);
+        g.forEachNeighbor(s, u -> {
+            sc.markFriend(u);
+            return true;
+        });
+
+        // wedges s - u - v: every non-friend v gets one count per common neighbor u
+        g.forEachNeighbor(s, u -> {
+            if (u == s) return true;
+            double w = sc.adamic == null ? 0 : 1 / Math.log(Math.max(2, g.degree(u)));
+            g.forEachNeighbor(u, v -> {
+                if (sc.isFriend(v)) return true;
+                if (sc.count[v]++ == 0) {
+                    if (sc.touchedSize == sc.touched.length) sc.touched = Arrays.copyOf(sc.touched, sc.touchedSize * 2);
+                    sc.touched[sc.touchedSize++] = v;
+                }
+                if (sc.adamic != null) sc.adamic[v] += w;
+                return true;
+            });
+            return true;
+        });
+
+        // bounded heap, worst of the kept candidates on top
+        int degS = g.degree(s);
+        Comparator<Recommendation> worstFirst = Comparator.<Recommendation>comparingDouble(r -> r.score)
+                .thenComparing(r -> r.vertex, Comparator.reverseOrder());
+        PriorityQueue<Recommendation> heap = new PriorityQueue<>(Math.min(k, sc.touchedSize) + 1, worstFirst);
+        for (int i = 0; i < sc.touchedSize; i++) {
+            int v = sc.touched[i];
+            int c = sc.count[v];
+            double value;
+            switch (score) {
+                case ADAMIC_ADAR:
+                    value = sc.adamic[v];
+                    break;
+                case JACCARD:
+                    value = (double) c / (degS + g.degree(v) - c);
+                    break;
+                default:
+                    value = c;
+            }
+            if (heap.size() == k) {
+                Recommendation worst = heap.peek();
+                // cheap reject before building the candidate (and looking up its name)
+                if (value < worst.score) continue;
+                Recommendation r = new Recommendation(g.name(v), c, value);
+                if (worstFirst.compare(r, worst) <= 0) continue;
+                heap.poll();
+                heap.add(r);
+            } else {
+                heap.add(new Recommendation(g.name(v), c, value));
+            }
+        }
+
+        // reset the touched entries for the next source
+        for (int i = 0; i < sc.touchedSize; i++) {
+            int v = sc.touched[i];
+            sc.count[v] = 0;
+            if (sc.adamic != null) sc.adamic[v] = 0;
+        }
+        sc.touchedSize = 0;
+        sc.friends[s >>> 6] = 0;
+        g.forEachNeighbor(s, u -> {
+            sc.friends[u >>> 6] = 0;
+            return true;
+        });
+
+        List<Recommendation> res = new ArrayList<>(heap);
+        res.sort(worstFirst.reversed());
+        return res;
+    }
+}
@@ -0,0 +1,95 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Set of graph ids touched by one traversal, numbered 0, 1, 2, ... in the order they were added;
+ * the slot indexes the traversal's own value arrays (dist, parent, ...), which grow with it.
+ *
+ * A small open-addressing table while few ids are touched, a dense id -> slot array once they
+ * are a sizeable part of idBound: a bounded or early-stopping traversal costs O(touched) instead
+ * of O(idBound) for allocating and clearing per-id arrays, a full one stays array-indexed.
+ */
+final class IdSlots {
+
+    private static final int DENSE_FRACTION = 8; // switch to the dense array at idBound / 8 ids
+
+    private final int idBound;
+    private int[] ids = new int[16]; // slot -> id
+    private int size;
+    private int[] table = new int[32]; // open addressing, slot + 1 (0 = empty); null once dense
+    private int[] dense;               // id -> slot + 1 (0 = absent)
+
+    IdSlots(int idBound) {
+        this.idBound = idBound;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int id(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * slot -> id for slots [0, size()); replaced (not updated) when the set grows.
+     */
+    int[] ids() {
+        return ids;
+    }
+
+    /**
+     * Slot of id, -1 if it was not added.
+     */
+    int slotOf(int id) {
+        if (dense != null) return id >= 0 && id < dense.length ? dense[id] - 1 : -1;
+        int mask = table.length - 1;
+        for (int h = hash(id) & mask; ; h = (h + 1) & mask) {
+            int s = table[h];
+            if (s == 0) return -1;
+            if (ids[s - 1] == id) return s - 1;
+        }
+    }
+
+    boolean contains(int id) {
+        return slotOf(id) >= 0;
+    }
+
+    /**
+     * Adds an id that is not in the set yet (0 <= id < idBound) and returns its slot (== old size()).
+     */
+    int add(int id) {
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        int slot = size++;
+        ids[slot] = id;
+        if (dense != null) {
+            dense[id] = slot + 1;
+        } else if ((long) size * DENSE_FRACTION >= idBound) {
+            dense = new int[idBound];
+            for (int i = 0; i < size; i++) dense[ids[i]] = i + 1;
+            table = null;
+        } else {
+            if (size * 2 > table.length) rehash(table.length * 2);
+            insert(slot);
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        for (int i = 0; i < size - 1; i++) insert(i); // the new slot is inserted by add()
+    }
+
+    private void insert(int slot) {
+        int mask = table.length - 1;
+        int h = hash(ids[slot]) & mask;
+        while (table[h] != 0) h = (h + 1) & mask;
+        table[h] = slot + 1;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
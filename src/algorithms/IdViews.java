@@ -0,0 +1,170 @@
+package algorithms;
+
+import graph.CompactGraph;
+import graph.Graph;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Read-only List/Map views over int-id traversal state, so results keep the public
+ * List<String>/Map<String, ...> types without building String-keyed maps up front.
+ * A key is resolved to its id on access; entries are created only while iterating.
+ */
+final class IdViews {
+
+    /**
+     * Name <-> id mapping of the graph a traversal ran on (-1 = unknown name).
+     */
+    interface Names {
+        int id(String name);
+
+        String name(int id);
+    }
+
+    private IdViews() {
+    }
+
+    // the graph's immutable name table, not the graph: views stay valid (and race-free) while it changes
+    static Names of(Graph g) {
+        Graph.NameTable t = g.nameTable();
+        return new Names() {
+            @Override
+            public int id(String name) {
+                return t.idOf(name);
+            }
+
+            @Override
+            public String name(int id) {
+                return t.nameOf(id);
+            }
+        };
+    }
+
+    static Names of(CompactGraph g) {
+        return new Names() {
+            @Override
+            public int id(String name) {
+                return name == null ? -1 : g.id(name);
+            }
+
+            @Override
+            public String name(int id) {
+                return g.name(id);
+            }
+        };
+    }
+
+    /**
+     * names of ids[from .. from+count) as a List.
+     */
+    static List<String> list(Names names, int[] ids, int from, int count) {
+        return new NameList(names, ids, from, count);
+    }
+
+    /**
+     * Map over the ids in members[0 .. count) (iteration order); a key is present iff has(id).
+     */
+    static <V> Map<String, V> map(Names names, int[] members, int count, IntPredicate has, IntFunction<V> value) {
+        return new IdMap<>(names, members, count, has, value);
+    }
+
+    /**
+     * Map over the ids of slots in slot order; value(slot) is the entry of the id in that slot.
+     */
+    static <V> Map<String, V> map(Names names, IdSlots slots, IntFunction<V> value) {
+        return new IdMap<>(names, slots.ids(), slots.size(), slots::contains, id -> value.apply(slots.slotOf(id)));
+    }
+
+    private static final class NameList extends AbstractList<String> implements RandomAccess {
+        final Names names;
+        final int[] ids;
+        final int from, count;
+
+        NameList(Names names, int[] ids, int from, int count) {
+            this.names = names;
+            this.ids = ids;
+            this.from = from;
+            this.count = count;
+        }
+
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, count);
+            return names.name(ids[from + index]);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    private static final class IdMap<V> extends AbstractMap<String, V> {
+        final Names names;
+        final int[] members;
+        final int count;
+        final IntPredicate has;
+        final IntFunction<V> value;
+
+        IdMap(Names names, int[] members, int count, IntPredicate has, IntFunction<V> value) {
+            this.names = names;
+            this.members = members;
+            this.count = count;
+            this.has = has;
+            this.value = value;
+        }
+
+        private int idOf(Object key) {
+            if (!(key instanceof String)) return -1;
+            int id = names.id((String) key);
+            return (id >= 0 && has.test(id)) ? id : -1;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return idOf(key) >= 0;
+        }
+
+        @Override
+        public V get(Object key) {
+            int id = idOf(key);
+            return id < 0 ? null : value.apply(id);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new Iterator<>() {
+                        int i;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < count;
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            if (i >= count) throw new NoSuchElementException();
+                            int id = members[i++];
+                            return new SimpleImmutableEntry<>(names.name(id), value.apply(id));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return count;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int ids with long keys and decrease-key (primitive arrays, no boxing).
+ * Ties are broken by id, so pop order is deterministic. Capacity grows with the largest id.
+ */
+final class IndexedMinHeap {
+    private int[] heap = new int[16];   // heap position -> id
+    private int[] pos = new int[16];    // id -> heap position + 1 (0 = not in heap)
+    private long[] key = new long[16];  // id -> key
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts id or lowers its key; a higher key is ignored.
+     */
+    void pushOrDecrease(int id, long k) {
+        ensure(id);
+        if (pos[id] != 0) {
+            if (k >= key[id]) return;
+            key[id] = k;
+            siftUp(pos[id] - 1);
+            return;
+        }
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        key[id] = k;
+        heap[size] = id;
+        pos[id] = size + 1;
+        siftUp(size++);
+    }
+
+    int pop() {
+        int top = heap[0];
+        pos[top] = 0;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 1;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void ensure(int id) {
+        if (id >= pos.length) {
+            int cap = Math.max(id + 1, pos.length * 2);
+            pos = Arrays.copyOf(pos, cap);
+            key = Arrays.copyOf(key, cap);
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && a < b);
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (!less(id, heap[p])) break;
+            heap[i] = heap[p];
+            pos[heap[i]] = i + 1;
+            i = p;
+        }
+        heap[i] = id;
+        pos[id] = i + 1;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= size) break;
+            if (c + 1 < size && less(heap[c + 1], heap[c])) c++;
+            if (!less(heap[c], id)) break;
+            heap[i] = heap[c];
+            pos[heap[i]] = i + 1;
+            i = c;
+        }
+        heap[i] = id;
+        pos[id] = i + 1;
+    }
+}
@@ -0,0 +1,90 @@
+package algorithms;
+
+import graph.CompactGraph;
+
+import java.util.*;
+
+/**
+ * Bit-parallel BFS from up to 64 roots at once: bit i of a vertex word belongs to root i,
+ * so one pass over the adjacency advances all 64 searches by one level.
+ */
+final class MultiSourceBFS {
+
+    static final int WIDTH = 64;
+
+    private MultiSourceBFS() {
+    }
+
+    /**
+     * Receives one BFS level: level[v] has bit i set iff dist(roots[i], v) == depth.
+     * The array is reused for the next level: copy it to keep it.
+     */
+    @FunctionalInterface
+    interface LevelVisitor {
+        void visit(int depth, long[] level);
+    }
+
+    /**
+     * Runs the searches level by level (depth 0 = the roots) and hands every level to visitor.
+     * Memory: three long[n] (seen, frontier, next), whatever the depth.
+     *
+     * maxHops bounds the depth; stopAt[i] >= 0 retires bit i as soon as vertex stopAt[i]
+     * is reached (its deeper levels are never needed) and, if reachedAt != null, records that
+     * depth in reachedAt[i] (-1 = never reached). Roots < 0 are ignored.
+     */
+    static void run(CompactGraph g, int[] roots, int maxHops, int[] stopAt, int[] reachedAt, LevelVisitor visitor) {
+        int n = g.vertexCount();
+        long[] seen = new long[n];
+        long[] frontier = new long[n];
+        long[] next = new long[n];
+        long active = 0;
+        if (reachedAt != null) Arrays.fill(reachedAt, -1);
+
+        for (int i = 0; i < roots.length; i++) {
+            if (roots[i] < 0) continue;
+            long bit = 1L << i;
+            seen[roots[i]] |= bit;
+            frontier[roots[i]] |= bit;
+            active |= bit;
+        }
+
+        visitor.visit(0, frontier);
+        active = retire(active, seen, stopAt, reachedAt, 0);
+
+        for (int d = 1; d <= maxHops && active != 0; d++) {
+            Arrays.fill(next, 0);
+            for (int u = 0; u < n; u++) {
+                long f = frontier[u] & active;
+                if (f == 0) continue;
+                for (int a = g.begin(u), end = g.end(u); a < end; a++) next[g.target(a)] |= f;
+            }
+            boolean any = false;
+            for (int v = 0; v < n; v++) {
+                long b = next[v] & ~seen[v];
+                next[v] = b;
+                if (b != 0) {
+                    seen[v] |= b;
+                    any = true;
+                }
+            }
+            if (!any) break;
+            visitor.visit(d, next);
+            long[] t = frontier;
+            frontier = next;
+            next = t;
+            active = retire(active, seen, stopAt, reachedAt, d);
+        }
+    }
+
+    private static long retire(long active, long[] seen, int[] stopAt, int[] reachedAt, int depth) {
+        if (stopAt == null) return active;
+        for (int i = 0; i < stopAt.length; i++) {
+            long bit = 1L << i;
+            if ((active & bit) != 0 && stopAt[i] >= 0 && (seen[stopAt[i]] & bit) != 0) {
+                active &= ~bit;
+                if (reachedAt != null) reachedAt[i] = depth;
+            }
+        }
+        return active;
+    }
+}
@@ -0,0 +1,59 @@
+package algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Small fork/join helpers shared by the parallel algorithms.
+ */
+final class Parallel {
+
+    @FunctionalInterface
+    interface RangeBody {
+        void run(int from, int to); // [from, to)
+    }
+
+    private Parallel() {
+    }
+
+    /**
+     * Runs body over [0, n) split into chunks of at least grain elements, and waits for all of them.
+     */
+    static void forRange(ForkJoinPool pool, int n, int grain, RangeBody body) {
+        if (n <= 0) return;
+        if (n <= grain || pool.getParallelism() == 1) {
+            body.run(0, n);
+            return;
+        }
+        pool.invoke(new RangeTask(0, n, Math.max(1, grain), body));
+    }
+
+    static int grainFor(ForkJoinPool pool, int n) {
+        // ~8 chunks per worker for load balancing, but not smaller than 256 elements
+        return Math.max(256, n / (pool.getParallelism() * 8));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, grain;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, int grain, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
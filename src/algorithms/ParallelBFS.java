@@ -0,0 +1,153 @@
+package algorithms;
+
+import graph.CompactGraph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level-synchronous, direction-optimizing BFS (Beamer et al.) over a CompactGraph.
+ *
+ * Each level is expanded in parallel either top-down (frontier vertices claim unvisited
+ * neighbors with an atomic bitset) or bottom-up (every unvisited vertex looks for a parent
+ * in the frontier bitset). Bottom-up is chosen while the frontier is "heavy".
+ */
+final class ParallelBFS {
+
+    // Beamer's heuristic constants: go bottom-up when m_f > m_u / ALPHA, back when n_f < n / BETA
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    private ParallelBFS() {
+    }
+
+    static BFS.Result run(CompactGraph g, int s, int threads, boolean deterministic) {
+        int n = g.vertexCount();
+        int words = (n + 63) >>> 6;
+        CompactGraph in = g.reverse(); // incoming rows for bottom-up (== g when undirected)
+
+        long[] visited = new long[words];        // only changed between levels
+        long[] frontierBits = new long[words];
+        AtomicLongArray next = new AtomicLongArray(words);
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        if (deterministic) {
+            for (int v = 0; v < n; v++) parent.set(v, Integer.MAX_VALUE); // "no candidate yet" for atomicMin
+        }
+
+        int[] order = new int[n];
+        int visitedCount = 0;
+
+        visited[s >>> 6] |= 1L << s;
+        frontierBits[s >>> 6] |= 1L << s;
+        dist[s] = 0;
+        parent.set(s, -1);
+        order[visitedCount++] = s;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int frontierFrom = 0, frontierTo = 1; // current frontier = order[frontierFrom, frontierTo)
+            long unexploredEdges = g.edgeCountStored();
+            boolean bottomUp = false;
+
+            for (int level = 0; frontierFrom < frontierTo; level++) {
+                long frontierEdges = 0;
+                for (int i = frontierFrom; i < frontierTo; i++) frontierEdges += g.degree(order[i]);
+                unexploredEdges -= frontierEdges;
+
+                int frontierSize = frontierTo - frontierFrom;
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) bottomUp = true;
+                else if (bottomUp && frontierSize < n / BETA) bottomUp = false;
+
+                int nextLevel = level + 1;
+                if (bottomUp) {
+                    Parallel.forRange(pool, words, Math.max(4, Parallel.grainFor(pool, words) / 64), (from, to) -> {
+                        for (int w = from; w < to; w++) {
+                            long unseen = ~visited[w];
+                            long found = 0;
+                            while (unseen != 0) {
+                                int bit = Long.numberOfTrailingZeros(unseen);
+                                unseen &= unseen - 1;
+                                int v = (w << 6) + bit;
+                                if (v >= n) break;
+                                // rows are sorted by name -> first frontier hit is the smallest parent
+                                for (int a = in.begin(v), end = in.end(v); a < end; a++) {
+                                    int u = in.target(a);
+                                    if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+                                        parent.set(v, deterministic ? g.rank(u) : u);
+                                        dist[v] = nextLevel;
+                                        found |= 1L << bit;
+                                        break;
+                                    }
+                                }
+                            }
+                            next.set(w, found); // each word is owned by exactly one task
+                        }
+                    });
+                } else {
+                    int base = frontierFrom;
+                    Parallel.forRange(pool, frontierSize, Parallel.grainFor(pool, frontierSize), (from, to) -> {
+                        for (int i = base + from; i < base + to; i++) {
+                            int u = order[i];
+                            for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+                                int v = g.target(a);
+                                if ((visited[v >>> 6] & (1L << v)) != 0) continue;
+
+                                long bit = 1L << v;
+                                long prev = next.getAndAccumulate(v >>> 6, bit, (x, y) -> x | y);
+                                if ((prev & bit) == 0) {
+                                    dist[v] = nextLevel;
+                                    if (!deterministic) parent.set(v, u);
+                                }
+                                if (deterministic) atomicMin(parent, v, g.rank(u));
+                            }
+                        }
+                    });
+                }
+
+                // merge: publish the new level; ids come out ascending within the level
+                frontierFrom = frontierTo;
+                int levelFrom = visitedCount;
+                for (int w = 0; w < words; w++) {
+                    long b = next.get(w);
+                    next.set(w, 0);
+                    frontierBits[w] = b;
+                    visited[w] |= b;
+                    while (b != 0) {
+                        order[visitedCount++] = (w << 6) + Long.numberOfTrailingZeros(b);
+                        b &= b - 1;
+                    }
+                }
+                if (g.isReordered()) sortByName(g, order, levelFrom, visitedCount);
+                frontierTo = visitedCount;
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // deterministic parents were collected as name ranks (the smallest rank is the smallest name)
+        int[] par = new int[n];
+        for (int i = 0; i < visitedCount; i++) {
+            int p = parent.get(order[i]);
+            par[order[i]] = (deterministic && p >= 0) ? g.idAtRank(p) : p;
+        }
+        return BFS.views(IdViews.of(g), order, visitedCount, visitedCount, dist, par);
+    }
+
+    // reordered graph: ids of one level ascending by name instead of by id
+    private static void sortByName(CompactGraph g, int[] order, int from, int to) {
+        for (int i = from; i < to; i++) order[i] = g.rank(order[i]);
+        Arrays.sort(order, from, to);
+        for (int i = from; i < to; i++) order[i] = g.idAtRank(order[i]);
+    }
+
+    private static void atomicMin(AtomicIntegerArray arr, int i, int value) {
+        int cur = arr.get(i);
+        while (value < cur && !arr.compareAndSet(i, cur, value)) {
+            cur = arr.get(i);
+        }
+    }
+}
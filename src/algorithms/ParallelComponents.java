@@ -0,0 +1,104 @@
+package algorithms;
+
+import graph.CompactGraph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parallel connected components of an UNDIRECTED CompactGraph (Afforest, Sutton et al.).
+ *
+ * Labels form a lock-free union-find forest in an AtomicIntegerArray: a root is only ever
+ * linked under a smaller root (CAS), so every tree root is the smallest id of its set.
+ *  1) link the first NEIGHBOR_ROUNDS arcs of every vertex, compress;
+ *  2) sample labels to guess the giant component;
+ *  3) link all remaining arcs of vertices outside it (skipping most of the edges), compress.
+ */
+final class ParallelComponents {
+
+    private static final int NEIGHBOR_ROUNDS = 2;
+    private static final int SAMPLES = 1024;
+
+    private ParallelComponents() {
+    }
+
+    /**
+     * comp[v] = smallest vertex id of v's component.
+     */
+    static int[] labels(CompactGraph g, int threads) {
+        int n = g.vertexCount();
+        AtomicIntegerArray comp = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) comp.set(v, v);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int grain = Parallel.grainFor(pool, n);
+            for (int r = 0; r < NEIGHBOR_ROUNDS; r++) {
+                int round = r;
+                Parallel.forRange(pool, n, grain, (from, to) -> {
+                    for (int u = from; u < to; u++) {
+                        int a = g.begin(u) + round;
+                        if (a < g.end(u)) link(comp, u, g.target(a));
+                    }
+                });
+                compress(pool, comp, n, grain);
+            }
+
+            int giant = sampleFrequentLabel(comp, n);
+            Parallel.forRange(pool, n, grain, (from, to) -> {
+                for (int u = from; u < to; u++) {
+                    if (comp.get(u) == giant) continue;
+                    // all arcs of u, both directions are stored -> edges into the giant component are not lost
+                    for (int a = g.begin(u) + NEIGHBOR_ROUNDS, end = g.end(u); a < end; a++) {
+                        link(comp, u, g.target(a));
+                    }
+                }
+            });
+            compress(pool, comp, n, grain);
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] out = new int[n];
+        for (int v = 0; v < n; v++) out[v] = comp.get(v);
+        return out;
+    }
+
+    // union of the trees of u and v: the larger root is attached under the smaller one
+    private static void link(AtomicIntegerArray comp, int u, int v) {
+        int p1 = comp.get(u), p2 = comp.get(v);
+        while (p1 != p2) {
+            int high = Math.max(p1, p2), low = Math.min(p1, p2);
+            int pHigh = comp.get(high);
+            if (pHigh == low) break;                                  // already linked
+            if (pHigh == high && comp.compareAndSet(high, high, low)) break; // high was a root
+            p1 = comp.get(comp.get(high));
+            p2 = comp.get(low);
+        }
+    }
+
+    private static void compress(ForkJoinPool pool, AtomicIntegerArray comp, int n, int grain) {
+        Parallel.forRange(pool, n, grain, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                while (comp.get(v) != comp.get(comp.get(v))) comp.set(v, comp.get(comp.get(v)));
+            }
+        });
+    }
+
+    private static int sampleFrequentLabel(AtomicIntegerArray comp, int n) {
+        if (n == 0) return -1;
+        Map<Integer, Integer> counts = new HashMap<>();
+        Random rnd = new Random(n); // fixed seed: the guess only affects speed, never the result
+        int best = comp.get(0), bestCount = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            int label = comp.get(rnd.nextInt(n));
+            int c = counts.merge(label, 1, Integer::sum);
+            if (c > bestCount) {
+                bestCount = c;
+                best = label;
+            }
+        }
+        return best;
+    }
+}
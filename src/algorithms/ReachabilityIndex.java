@@ -0,0 +1,548 @@
+package algorithms;
+
+import graph.CompactGraph;
+import graph.Graph;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Precomputed index over an UNDIRECTED (friendship) graph that turns SocialReachability queries
+ * into lookups:
+ * - distance oracle by pruned landmark labeling: every vertex keeps (hub, dist) pairs, hubs ranked
+ *   by decreasing degree; dist(s, t) = min over common hubs of dist(s, hub) + dist(hub, t);
+ * - the dist <= 2 ball of the hotVertices vertices whose ball is most expensive to merge, stored
+ *   as delta + varint encoded id lists; other balls are merged from the sorted rows on demand.
+ *
+ * Answers equal run() on the graph it was built from (same lists, same shortest path).
+ * Labels are small on hub-dominated social graphs; on random or grid-like graphs they grow to
+ * hundreds of entries per vertex and the build gets slow (use runBatch there).
+ * The index is immutable and does not follow graph edits: isCurrent(Graph) is true only for the
+ * Graph instance it was built from (or bound to) at that version; SocialReachability.run(Graph,
+ * ReachabilityIndex, ...) falls back to BFS otherwise. A loaded index is bound to no Graph.
+ * Stored on disk with GraphIO.writeReachabilityIndex / readReachabilityIndex.
+ */
+public final class ReachabilityIndex {
+
+    static final int FORMAT = 2; // bumped when write() changes
+
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final CompactGraph g;      // in name order: id == rank
+    private final WeakReference<Graph> source; // Graph built from / bound to (weak: the index must not pin it)
+    private final long graphVersion;   // source.version() at build / bind time, -1 without a source
+    private final long fingerprint;    // CRC32 of names and arcs, checked when an index is loaded
+
+    // labels of v: [labelOffsets[v], labelOffsets[v+1]) in labelHubs (hub rank, ascending) / labelDists
+    private final int[] labelOffsets;
+    private final int[] labelHubs;
+    private final int[] labelDists;
+
+    // hot balls: hotIds sorted; ball i in [hotOffsets[i], hotOffsets[i+1]) of hotBytes
+    private final int[] hotIds;
+    private final int[] hotSizes;
+    private final int[] hotOffsets;
+    private final byte[] hotBytes;
+
+    // hub -> dist to the current path target, all INF between calls
+    private final ThreadLocal<int[]> targetScratch;
+
+    private ReachabilityIndex(CompactGraph g, Graph source, long fingerprint, int[] labelOffsets,
+                              int[] labelHubs, int[] labelDists, int[] hotIds, int[] hotSizes,
+                              int[] hotOffsets, byte[] hotBytes) {
+        this.g = g;
+        this.source = source == null ? null : new WeakReference<>(source);
+        this.graphVersion = source == null ? -1 : source.version();
+        this.fingerprint = fingerprint;
+        this.labelOffsets = labelOffsets;
+        this.labelHubs = labelHubs;
+        this.labelDists = labelDists;
+        this.hotIds = hotIds;
+        this.hotSizes = hotSizes;
+        this.hotOffsets = hotOffsets;
+        this.hotBytes = hotBytes;
+        int n = g.vertexCount();
+        this.targetScratch = ThreadLocal.withInitial(() -> {
+            int[] a = new int[n];
+            Arrays.fill(a, INF);
+            return a;
+        });
+    }
+
+    /**
+     * Builds the index of g's current state (isCurrent(g) is true until the next edit).
+     * hotVertices: how many 2-hop balls to precompute; threads <= 0 -> all processors.
+     */
+    public static ReachabilityIndex build(Graph g, int hotVertices, int threads) {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null");
+        return build(g.freeze(), g, hotVertices, threads);
+    }
+
+    public static ReachabilityIndex build(CompactGraph g, int hotVertices, int threads) {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null");
+        return build(g, null, hotVertices, threads);
+    }
+
+    private static ReachabilityIndex build(CompactGraph graph, Graph source, int hotVertices, int threads) {
+        if (graph.isDirected()) throw new IllegalArgumentException("Reachability index requires an UNDIRECTED graph");
+        if (hotVertices < 0) throw new IllegalArgumentException("hotVertices must be >= 0");
+        CompactGraph g = graph.inNameOrder();
+        int p = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = p == 1 ? null : new ForkJoinPool(p);
+        try {
+            int[][] labels = buildLabels(g, pool, p);
+
+            int[] hot = hotVertices(g, hotVertices);
+            byte[][] balls = new byte[hot.length][];
+            int[] sizes = new int[hot.length];
+            IntConsumer encode = i -> {
+                int[] ball = mergeBall(g, hot[i]);
+                sizes[i] = ball.length;
+                balls[i] = encode(ball);
+            };
+            if (pool == null) IntStream.range(0, hot.length).forEach(encode);
+            else pool.submit(() -> IntStream.range(0, hot.length).parallel().forEach(encode)).join();
+
+            int[] hotOffsets = new int[hot.length + 1];
+            for (int i = 0; i < hot.length; i++) hotOffsets[i + 1] = hotOffsets[i] + balls[i].length;
+            byte[] hotBytes = new byte[hotOffsets[hot.length]];
+            for (int i = 0; i < hot.length; i++) System.arraycopy(balls[i], 0, hotBytes, hotOffsets[i], balls[i].length);
+
+            return new ReachabilityIndex(g, source, fingerprint(g), labels[0], labels[1], labels[2],
+                    hot, sizes, hotOffsets, hotBytes);
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+    }
+
+    /**
+     * Graph this index answers for (in name order).
+     */
+    public CompactGraph graph() {
+        return g;
+    }
+
+    /**
+     * Graph.version() of the Graph the index was built from or bound to; -1 if it has none
+     * (built from a CompactGraph or loaded from disk).
+     */
+    public long graphVersion() {
+        return graphVersion;
+    }
+
+    /**
+     * True if g is the Graph instance the index was built from (or bound to) and has not been
+     * edited since. Versions alone do not identify a graph: every loaded or built Graph starts at 0.
+     */
+    public boolean isCurrent(Graph g) {
+        return g != null && source != null && source.get() == g && g.version() == graphVersion;
+    }
+
+    /**
+     * The same index bound to g (isCurrent(g) until g's next edit), after checking that g has
+     * exactly this index's vertices and edges (O(n + m)); IllegalArgumentException otherwise.
+     * Used for an index loaded from disk, or one built from another instance of the same graph.
+     */
+    public ReachabilityIndex bind(Graph g) {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (!sameGraph(g.freeze(), this.g)) {
+            throw new IllegalArgumentException("Reachability index was built for a different graph");
+        }
+        return new ReachabilityIndex(this.g, g, fingerprint, labelOffsets, labelHubs, labelDists,
+                hotIds, hotSizes, hotOffsets, hotBytes);
+    }
+
+    // same names and arcs; b is in name order
+    private static boolean sameGraph(CompactGraph a, CompactGraph b) {
+        if (a.isDirected() != b.isDirected() || a.vertexCount() != b.vertexCount()
+                || a.edgeCountStored() != b.edgeCountStored()) {
+            return false;
+        }
+        a = a.inNameOrder();
+        for (int v = 0; v < a.vertexCount(); v++) {
+            if (!a.name(v).equals(b.name(v)) || a.degree(v) != b.degree(v)) return false;
+            for (int i = a.begin(v), j = b.begin(v), end = a.end(v); i < end; i++, j++) {
+                if (a.target(i) != b.target(j)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of (hub, dist) label entries; average label size = labelEntries / vertexCount.
+     */
+    public int labelEntries() {
+        return labelHubs.length;
+    }
+
+    public int hotVertexCount() {
+        return hotIds.length;
+    }
+
+    /**
+     * Hop distance s -> t, -1 if unreachable or a vertex is missing.
+     */
+    public int distance(String s, String t) {
+        if (!g.containsVertex(s) || !g.containsVertex(t)) return -1;
+        int d = query(g.id(s), g.id(t));
+        return d == INF ? -1 : d;
+    }
+
+    /**
+     * All vertices with 1 <= dist <= 2 from s, sorted (as SocialReachability.run); empty if s is missing.
+     */
+    public List<String> withinDistance2(String s) {
+        if (!g.containsVertex(s)) return List.of();
+        int u = g.id(s);
+        int slot = Arrays.binarySearch(hotIds, u);
+        int[] ball = slot >= 0 ? decode(hotBytes, hotOffsets[slot], hotSizes[slot]) : mergeBall(g, u);
+        List<String> res = new ArrayList<>(ball.length);
+        for (int v : ball) res.add(g.name(v)); // ids are in name order
+        return res;
+    }
+
+    /**
+     * Same path as BFS.shortestPathUnweighted: from s, the smallest neighbor one step closer to t
+     * each time. t's labels are spread into a per-thread hub -> dist array first, so checking a
+     * neighbor only scans its own labels. Empty if unreachable or missing.
+     */
+    public List<String> shortestPath(String s, String t) {
+        if (!g.containsVertex(s) || !g.containsVertex(t)) return List.of();
+        int cur = g.id(s), dst = g.id(t);
+        int dist = query(cur, dst);
+        if (dist == INF) return List.of();
+
+        int[] toTarget = targetScratch.get();
+        for (int k = labelOffsets[dst]; k < labelOffsets[dst + 1]; k++) toTarget[labelHubs[k]] = labelDists[k];
+        try {
+            List<String> path = new ArrayList<>(dist + 1);
+            path.add(g.name(cur));
+            for (int d = dist - 1; d >= 0; d--) {
+                for (int a = g.begin(cur), end = g.end(cur); a < end; a++) {
+                    int w = g.target(a);
+                    if (reaches(w, d, toTarget)) {
+                        cur = w;
+                        break;
+                    }
+                }
+                path.add(g.name(cur));
+            }
+            return path;
+        } finally {
+            for (int k = labelOffsets[dst]; k < labelOffsets[dst + 1]; k++) toTarget[labelHubs[k]] = INF;
+        }
+    }
+
+    // dist(w, t) == d, given that it is >= d (w is a neighbor of a vertex at distance d + 1)
+    private boolean reaches(int w, int d, int[] toTarget) {
+        for (int k = labelOffsets[w], end = labelOffsets[w + 1]; k < end; k++) {
+            int x = toTarget[labelHubs[k]];
+            if (x != INF && x + labelDists[k] == d) return true;
+        }
+        return false;
+    }
+
+    // merge join of two label lists sorted by hub
+    private int query(int u, int v) {
+        int best = INF;
+        int i = labelOffsets[u], iEnd = labelOffsets[u + 1];
+        int j = labelOffsets[v], jEnd = labelOffsets[v + 1];
+        while (i < iEnd && j < jEnd) {
+            int hu = labelHubs[i], hv = labelHubs[j];
+            if (hu == hv) {
+                best = Math.min(best, labelDists[i++] + labelDists[j++]);
+            } else if (hu < hv) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return best;
+    }
+
+    // ---- construction ----
+
+    // hubs by decreasing degree, ties by name
+    private static int[] hubOrder(CompactGraph g) {
+        int n = g.vertexCount();
+        long[] keys = new long[n];
+        int maxDegree = 0;
+        for (int u = 0; u < n; u++) maxDegree = Math.max(maxDegree, g.degree(u));
+        for (int u = 0; u < n; u++) keys[u] = ((long) (maxDegree - g.degree(u)) << 32) | u;
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = (int) keys[i];
+        return order;
+    }
+
+    /**
+     * Pruned BFS from every hub in rank order, in batches of p hubs that run in parallel: a batch only
+     * prunes with the labels of earlier batches, so labels can get slightly larger with more threads
+     * (never wrong: pruning with fewer labels only keeps more entries). p == 1 -> classic PLL.
+     * Returns {offsets, hubs, dists}.
+     */
+    private static int[][] buildLabels(CompactGraph g, ForkJoinPool pool, int p) {
+        int n = g.vertexCount();
+        int[] order = hubOrder(g);
+
+        int[][] hubs = new int[n][];
+        int[][] dists = new int[n][];
+        int[] len = new int[n];
+        Scratch[] scratch = new Scratch[Math.min(p, Math.max(1, n))];
+        for (int i = 0; i < scratch.length; i++) scratch[i] = new Scratch(n);
+
+        for (int from = 0; from < n; from += scratch.length) {
+            int batch = Math.min(scratch.length, n - from);
+            int first = from;
+            if (pool == null || batch == 1) {
+                for (int i = 0; i < batch; i++) scratch[i].prunedBfs(g, order[first + i], hubs, dists, len);
+            } else {
+                pool.submit(() -> IntStream.range(0, batch).parallel()
+                        .forEach(i -> scratch[i].prunedBfs(g, order[first + i], hubs, dists, len))).join();
+            }
+            // commit in rank order -> every label list stays sorted by hub rank
+            for (int i = 0; i < batch; i++) {
+                Scratch sc = scratch[i];
+                for (int k = 0; k < sc.found; k++) {
+                    int v = sc.foundVertex[k];
+                    if (hubs[v] == null) {
+                        hubs[v] = new int[4];
+                        dists[v] = new int[4];
+                    } else if (len[v] == hubs[v].length) {
+                        hubs[v] = Arrays.copyOf(hubs[v], len[v] * 2);
+                        dists[v] = Arrays.copyOf(dists[v], len[v] * 2);
+                    }
+                    hubs[v][len[v]] = first + i;
+                    dists[v][len[v]] = sc.foundDist[k];
+                    len[v]++;
+                }
+            }
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) offsets[v + 1] = offsets[v] + len[v];
+        int[] allHubs = new int[offsets[n]];
+        int[] allDists = new int[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            if (len[v] == 0) continue;
+            System.arraycopy(hubs[v], 0, allHubs, offsets[v], len[v]);
+            System.arraycopy(dists[v], 0, allDists, offsets[v], len[v]);
+        }
+        return new int[][]{offsets, allHubs, allDists};
+    }
+
+    // Per-worker BFS state; reset after every BFS so only the touched entries are cleared.
+    private static final class Scratch {
+        final int[] dist;       // BFS distance, INF = unvisited
+        final int[] hubDist;    // hub rank -> dist from the current root, INF = not in the root's labels
+        final int[] queue;
+        int[] foundVertex = new int[16];
+        int[] foundDist = new int[16];
+        int found;
+
+        Scratch(int n) {
+            dist = new int[n];
+            hubDist = new int[n];
+            queue = new int[n];
+            Arrays.fill(dist, INF);
+            Arrays.fill(hubDist, INF);
+        }
+
+        // reads only committed labels (len is not changed during a batch)
+        void prunedBfs(CompactGraph g, int root, int[][] hubs, int[][] dists, int[] len) {
+            found = 0;
+            for (int k = 0; k < len[root]; k++) hubDist[hubs[root][k]] = dists[root][k];
+
+            int head = 0, tail = 0;
+            queue[tail++] = root;
+            dist[root] = 0;
+            while (head < tail) {
+                int v = queue[head++];
+                int d = dist[v];
+                if (covered(v, d, hubs, dists, len)) continue;
+                if (found == foundVertex.length) {
+                    foundVertex = Arrays.copyOf(foundVertex, found * 2);
+                    foundDist = Arrays.copyOf(foundDist, found * 2);
+                }
+                foundVertex[found] = v;
+                foundDist[found] = d;
+                found++;
+                for (int a = g.begin(v), end = g.end(v); a < end; a++) {
+                    int w = g.target(a);
+                    if (dist[w] == INF) {
+                        dist[w] = d + 1;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+
+            for (int i = 0; i < tail; i++) dist[queue[i]] = INF;
+            for (int k = 0; k < len[root]; k++) hubDist[hubs[root][k]] = INF;
+        }
+
+        // existing labels already give dist(root, v) <= d
+        private boolean covered(int v, int d, int[][] hubs, int[][] dists, int[] len) {
+            int[] h = hubs[v];
+            for (int k = 0, l = len[v]; k < l; k++) {
+                int hd = hubDist[h[k]];
+                if (hd != INF && hd + dists[v][k] <= d) return true;
+            }
+            return false;
+        }
+    }
+
+    // vertices whose ball costs the most to merge (sum of neighbor degrees), ids ascending
+    private static int[] hotVertices(CompactGraph g, int count) {
+        int n = g.vertexCount();
+        count = Math.min(count, n);
+        if (count == 0) return new int[0];
+        long[] keys = new long[n];
+        for (int u = 0; u < n; u++) {
+            long cost = 0;
+            for (int a = g.begin(u), end = g.end(u); a < end; a++) cost += g.degree(g.target(a));
+            keys[u] = (Math.min(cost, Integer.MAX_VALUE) << 32) | (n - 1 - u); // ties -> smaller id
+        }
+        Arrays.sort(keys);
+        int[] hot = new int[count];
+        for (int i = 0; i < count; i++) hot[i] = n - 1 - (int) keys[n - 1 - i];
+        Arrays.sort(hot);
+        return hot;
+    }
+
+    // ids at distance 1 or 2 from u, ascending: union of u's row and its neighbors' rows
+    private static int[] mergeBall(CompactGraph g, int u) {
+        int size = 0;
+        for (int a = g.begin(u), end = g.end(u); a < end; a++) size += 1 + g.degree(g.target(a));
+        int[] all = new int[size];
+        int k = 0;
+        for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+            int v = g.target(a);
+            all[k++] = v;
+            for (int b = g.begin(v), e2 = g.end(v); b < e2; b++) all[k++] = g.target(b);
+        }
+        Arrays.sort(all, 0, k);
+        int m = 0;
+        for (int i = 0; i < k; i++) {
+            if (all[i] == u || (m > 0 && all[m - 1] == all[i])) continue;
+            all[m++] = all[i];
+        }
+        return Arrays.copyOf(all, m);
+    }
+
+    // ascending ids -> gaps as unsigned LEB128 varints
+    private static byte[] encode(int[] ids) {
+        byte[] out = new byte[ids.length * 5];
+        int k = 0, prev = -1;
+        for (int id : ids) {
+            int gap = id - prev - 1;
+            prev = id;
+            while ((gap & ~0x7F) != 0) {
+                out[k++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            out[k++] = (byte) gap;
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    private static int[] decode(byte[] in, int pos, int count) {
+        int[] ids = new int[count];
+        int prev = -1;
+        for (int i = 0; i < count; i++) {
+            int gap = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in[pos++];
+                gap |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            prev += gap + 1;
+            ids[i] = prev;
+        }
+        return ids;
+    }
+
+    private static long fingerprint(CompactGraph g) {
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[4];
+        for (int v = 0; v < g.vertexCount(); v++) {
+            crc.update(g.name(v).getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+            for (int a = g.begin(v), end = g.end(v); a < end; a++) {
+                int t = g.target(a);
+                buf[0] = (byte) (t >>> 24);
+                buf[1] = (byte) (t >>> 16);
+                buf[2] = (byte) (t >>> 8);
+                buf[3] = (byte) t;
+                crc.update(buf);
+            }
+            crc.update(0xFF);
+        }
+        return crc.getValue();
+    }
+
+    // ---- serialization (file framing and checksum: GraphIO) ----
+
+    /**
+     * Writes the index without its graph (the graph is given again to read()).
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(FORMAT);
+        out.writeLong(fingerprint);
+        out.writeInt(g.vertexCount());
+        out.writeInt(labelHubs.length);
+        for (int x : labelOffsets) out.writeInt(x);
+        for (int x : labelHubs) out.writeInt(x);
+        for (int x : labelDists) out.writeInt(x);
+        out.writeInt(hotIds.length);
+        for (int x : hotIds) out.writeInt(x);
+        for (int x : hotSizes) out.writeInt(x);
+        for (int x : hotOffsets) out.writeInt(x);
+        out.write(hotBytes);
+    }
+
+    /**
+     * Reads an index written by write() for graph g; IllegalArgumentException if it was built
+     * for a different graph (names or arcs differ) or has an unknown format.
+     * The result is bound to no Graph (graphVersion() == -1): use bind(Graph) before
+     * SocialReachability.run(Graph, ReachabilityIndex, ...).
+     */
+    public static ReachabilityIndex read(DataInput in, CompactGraph g) throws IOException {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null");
+        int format = in.readInt();
+        if (format != FORMAT) throw new IllegalArgumentException("Unsupported reachability index format: " + format);
+        g = g.inNameOrder();
+        long fingerprint = in.readLong();
+        int n = in.readInt();
+        if (n != g.vertexCount() || fingerprint != fingerprint(g)) {
+            throw new IllegalArgumentException("Reachability index was built for a different graph");
+        }
+        int entries = in.readInt();
+        if (entries < 0) throw new IllegalArgumentException("Corrupted reachability index");
+        int[] labelOffsets = readInts(in, n + 1);
+        int[] labelHubs = readInts(in, entries);
+        int[] labelDists = readInts(in, entries);
+        int hot = in.readInt();
+        if (hot < 0 || hot > n) throw new IllegalArgumentException("Corrupted reachability index");
+        int[] hotIds = readInts(in, hot);
+        int[] hotSizes = readInts(in, hot);
+        int[] hotOffsets = readInts(in, hot + 1);
+        byte[] hotBytes = new byte[hotOffsets[hot]];
+        in.readFully(hotBytes);
+        return new ReachabilityIndex(g, null, fingerprint, labelOffsets, labelHubs, labelDists,
+                hotIds, hotSizes, hotOffsets, hotBytes);
+    }
+
+    private static int[] readInts(DataInput in, int count) throws IOException {
+        int[] a = new int[count];
+        for (int i = 0; i < count; i++) a[i] = in.readInt();
+        return a;
+    }
+}
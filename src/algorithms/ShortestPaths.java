@@ -0,0 +1,310 @@
+package algorithms;
+
+import graph.CompactGraph;
+import graph.IdEdgeVisitor;
+import graph.Graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Weighted shortest paths (edge weights from Graph; unweighted graphs count every edge as 1).
+ * Weights must be non-negative. A negative arc is an IllegalArgumentException when a search scans it:
+ * dijkstra and deltaStepping see every arc they could use (deltaStepping checks all arcs up front),
+ * shortestPath / aStar only scan arcs until t is settled, so a negative arc past that goes unnoticed.
+ *
+ * - dijkstra:      single-source, indexed binary heap over the vertices discovered so far
+ *                  (IdSlots: only the explored part of the graph is touched);
+ * - shortestPath / aStar: point-to-point, stops when t is settled; aStar takes a heuristic;
+ * - deltaStepping: parallel single-source variant over CompactGraph for large graphs.
+ */
+public class ShortestPaths {
+
+    /**
+     * Lower bound of the remaining distance v -> target. Must never overestimate
+     * (admissible); consistent heuristics also avoid re-opening vertices.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        long estimate(String v);
+    }
+
+    public static class Result {
+        public final Map<String, Long> distance;  // total weight from start
+        public final Map<String, String> parent;  // start -> null
+
+        public Result(Map<String, Long> distance, Map<String, String> parent) {
+            this.distance = distance;
+            this.parent = parent;
+        }
+
+        /**
+         * Path start -> t (inclusive), empty if t was not reached.
+         */
+        public List<String> pathTo(String t) {
+            if (t == null || !distance.containsKey(t)) return List.of();
+            LinkedList<String> path = new LinkedList<>();
+            for (String cur = t; cur != null; cur = parent.get(cur)) path.addFirst(cur);
+            return path;
+        }
+    }
+
+    /**
+     * Dijkstra from s over the whole reachable part. If s doesn't exist -> empty result.
+     */
+    public static Result dijkstra(Graph g, String s) {
+        if (g == null || s == null || !g.containsVertex(s)) return new Result(Map.of(), Map.of());
+
+        Search search = new Search(g, null);
+        search.run(s, null);
+        return search.result();
+    }
+
+    /**
+     * Minimum-weight path s -> t (inclusive), empty if unreachable.
+     */
+    public static List<String> shortestPath(Graph g, String s, String t) {
+        return aStar(g, s, t, v -> 0);
+    }
+
+    /**
+     * A*: Dijkstra ordered by dist + h(v), stops as soon as t is settled.
+     */
+    public static List<String> aStar(Graph g, String s, String t, Heuristic h) {
+        if (g == null || s == null || t == null) return List.of();
+        if (!g.containsVertex(s) || !g.containsVertex(t)) return List.of();
+
+        Search search = new Search(g, h);
+        search.run(s, t);
+        return search.result().pathTo(t);
+    }
+
+    // One search: discovered ids get slots (discovery order), dist/parent and the heap work on
+    // slots, so the cost follows the explored part; relaxation as an IdEdgeVisitor.
+    private static final class Search implements IdEdgeVisitor {
+        final Graph g;
+        final Heuristic h;
+        final IndexedMinHeap heap = new IndexedMinHeap(); // slots
+        final IdSlots seen;
+        long[] dist = new long[16];
+        int[] parent = new int[16]; // parent id, -1 = start
+        int u, uSlot;
+
+        Search(Graph g, Heuristic h) {
+            this.g = g;
+            this.h = h;
+            seen = new IdSlots(g.idBound());
+        }
+
+        void run(String s, String target) {
+            int sid = g.idOf(s);
+            int tid = g.idOf(target);
+            int k = discover(sid);
+            dist[k] = 0;
+            parent[k] = -1;
+            heap.pushOrDecrease(k, estimate(sid, 0));
+
+            while (!heap.isEmpty()) {
+                uSlot = heap.pop();
+                u = seen.id(uSlot);
+                if (u == tid) return;
+                g.forEachEdgeId(u, this);
+            }
+        }
+
+        @Override
+        public boolean visit(int v, int w) {
+            if (w < 0) throw new IllegalArgumentException("Negative edge weight: " + g.nameOf(u) + " -> " + g.nameOf(v));
+            long nd = dist[uSlot] + w;
+            int k = seen.slotOf(v);
+            if (k < 0) k = discover(v);
+            if (nd < dist[k]) {
+                dist[k] = nd;
+                parent[k] = u;
+                // an already popped vertex comes back only if a better path shows up (inconsistent heuristic)
+                heap.pushOrDecrease(k, estimate(v, nd));
+            }
+            return true;
+        }
+
+        private int discover(int v) {
+            int k = seen.add(v);
+            if (k == dist.length) {
+                dist = Arrays.copyOf(dist, k * 2);
+                parent = Arrays.copyOf(parent, k * 2);
+            }
+            dist[k] = Long.MAX_VALUE;
+            return k;
+        }
+
+        private long estimate(int v, long d) {
+            return h == null ? d : d + h.estimate(g.nameOf(v));
+        }
+
+        Result result() {
+            IdViews.Names names = IdViews.of(g);
+            long[] d = dist;
+            int[] p = parent;
+            return new Result(IdViews.map(names, seen, k -> d[k]),
+                    IdViews.map(names, seen, k -> p[k] < 0 ? null : names.name(p[k])));
+        }
+    }
+
+    // distance/parent as views over the arrays; members = reached vertices
+    private static Result views(IdViews.Names names, int[] members, int count, long[] dist, int[] parent) {
+        java.util.function.IntPredicate reached = v -> v < dist.length && dist[v] != Long.MAX_VALUE;
+        return new Result(IdViews.map(names, members, count, reached, v -> dist[v]),
+                IdViews.map(names, members, count, reached, v -> parent[v] < 0 ? null : names.name(parent[v])));
+    }
+
+    // ---------- delta-stepping (parallel) ----------
+
+    /**
+     * Delta-stepping SSSP: vertices are grouped in buckets of width delta; edges with weight
+     * <= delta ("light") are relaxed repeatedly inside a bucket, heavy ones once per bucket.
+     * Relaxation requests of a phase are generated in parallel and applied in a fixed order.
+     *
+     * delta <= 0 -> max weight / average degree. threads <= 0 -> all processors.
+     * Distances equal dijkstra(). On ties the parent with the smaller name wins among parents in
+     * earlier buckets; within a bucket (zero-weight arcs) the first relaxation in request order stays.
+     */
+    public static Result deltaStepping(CompactGraph g, String s, long delta, int threads) {
+        int src = (g == null) ? -1 : g.id(s);
+        if (src < 0) return new Result(Map.of(), Map.of());
+
+        int n = g.vertexCount();
+        int maxW = 0;
+        for (int a = 0; a < g.edgeCountStored(); a++) {
+            int w = g.weight(a);
+            if (w < 0) throw new IllegalArgumentException("Negative edge weight: "
+                    + g.name(sourceOf(g, a)) + " -> " + g.name(g.target(a)));
+            maxW = Math.max(maxW, w);
+        }
+        if (delta <= 0) {
+            long avgDegree = Math.max(1, g.edgeCountStored() / Math.max(1, n));
+            delta = Math.max(1, maxW / avgDegree);
+        }
+
+        long[] dist = new long[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[src] = 0;
+        parent[src] = -1;
+
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        buckets.computeIfAbsent(0L, k -> new IntList()).add(src);
+        int[] roundMark = new int[n];   // dedupe inside one light round
+        long[] settledMark = new long[n]; // bucket index + 1 -> already in this bucket's settled list
+        int round = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        try {
+            while (!buckets.isEmpty()) {
+                long i = buckets.firstKey();
+                IntList settled = new IntList();
+
+                IntList cur;
+                while ((cur = buckets.remove(i)) != null) {
+                    // drop stale entries (already moved to another bucket) and duplicates
+                    round++;
+                    IntList frontier = new IntList();
+                    for (int k = 0; k < cur.size; k++) {
+                        int v = cur.data[k];
+                        if (dist[v] / delta != i || roundMark[v] == round) continue;
+                        roundMark[v] = round;
+                        frontier.add(v);
+                        if (settledMark[v] != i + 1) {
+                            settledMark[v] = i + 1;
+                            settled.add(v);
+                        }
+                    }
+                    relax(g, pool, frontier, dist, parent, buckets, delta, true);
+                }
+                relax(g, pool, settled, dist, parent, buckets, delta, false);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] reached = new int[n];
+        int count = 0;
+        for (int r = 0; r < n; r++) { // name order
+            int v = g.idAtRank(r);
+            if (dist[v] != Long.MAX_VALUE) reached[count++] = v;
+        }
+        return views(IdViews.of(g), reached, count, dist, parent);
+    }
+
+    public static Result deltaStepping(Graph g, String s, long delta, int threads) {
+        if (g == null || !g.containsVertex(s)) return new Result(Map.of(), Map.of());
+        return deltaStepping(g.freeze(), s, delta, threads);
+    }
+
+    // one phase: requests (v, dist[u] + w, u) for light or heavy arcs of the frontier, then apply in order
+    private static void relax(CompactGraph g, ForkJoinPool pool, IntList frontier, long[] dist, int[] parent,
+                              TreeMap<Long, IntList> buckets, long delta, boolean light) {
+        int f = frontier.size;
+        if (f == 0) return;
+        int[] slot = new int[f + 1];
+        for (int k = 0; k < f; k++) slot[k + 1] = slot[k] + g.degree(frontier.data[k]);
+
+        int total = slot[f];
+        int[] reqV = new int[total];
+        int[] reqU = new int[total];
+        long[] reqD = new long[total];
+        Parallel.forRange(pool, f, Math.max(16, Parallel.grainFor(pool, f) / 16), (from, to) -> {
+            for (int k = from; k < to; k++) {
+                int u = frontier.data[k];
+                int p = slot[k];
+                for (int a = g.begin(u), end = g.end(u); a < end; a++, p++) {
+                    int w = g.weight(a);
+                    int v = g.target(a);
+                    long nd = dist[u] + w;
+                    if ((w <= delta) != light || nd > dist[v]) {
+                        reqV[p] = -1;
+                        continue;
+                    }
+                    reqV[p] = v;
+                    reqU[p] = u;
+                    reqD[p] = nd;
+                }
+            }
+        });
+
+        for (int p = 0; p < total; p++) {
+            int v = reqV[p];
+            if (v < 0) continue;
+            long nd = reqD[p];
+            int u = reqU[p];
+            // tie -> smaller name, but only for a parent from an earlier bucket (dist[u] < dist[v]):
+            // zero-weight ties inside one bucket could otherwise point two vertices at each other
+            if (nd < dist[v] || (nd == dist[v] && parent[v] >= 0 && dist[u] / delta < nd / delta
+                    && g.rank(u) < g.rank(parent[v]))) {
+                boolean moved = nd < dist[v];
+                dist[v] = nd;
+                parent[v] = u;
+                if (moved) buckets.computeIfAbsent(nd / delta, k -> new IntList()).add(v);
+            }
+        }
+    }
+
+    private static int sourceOf(CompactGraph g, int arc) {
+        int lo = 0, hi = g.vertexCount() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (g.begin(mid) <= arc) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private static final class IntList {
+        int[] data = new int[8];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package algorithms;
 
+import graph.CompactGraph;
 import graph.Graph;
 
 import java.util.*;
 
 public class SocialReachability {
 
+    private static final TraversalSpec NEIGHBORHOOD = TraversalSpec.maxDepth(2);
+
     public static class Result {
         public final String source;
         public final List<String> withinDistance2; // all vertices with dist <= 2 (excluding source)
@@ -18,6 +21,16 @@ public class SocialReachability {
         }
     }
 
+    public static class Query {
+        public final String source;
+        public final String target;
+
+        public Query(String source, String target) {
+            this.source = source;
+            this.target = target;
+        }
+    }
+
     /**
      * Undirected friendship graph:
      * (i) all people within distance <= 2 from S
@@ -33,7 +46,7 @@ public class SocialReachability {
             return new Result(s, List.of(), List.of());
         }
 
-        BFS.Result bfs = BFS.run(g, s);
+        BFS.Result bfs = BFS.run(g, s, NEIGHBORHOOD); // only the 2-hop ball is touched
 
         List<String> near = new ArrayList<>();
         for (Map.Entry<String, Integer> e : bfs.distance.entrySet()) {
@@ -47,5 +60,189 @@ public class SocialReachability {
 
         return new Result(s, near, path);
     }
-}
 
+    /**
+     * Same as run(Graph, ...) over a CompactGraph.
+     */
+    public static Result run(CompactGraph g, String s, String t) {
+        if (g == null || !g.containsVertex(s) || !g.containsVertex(t)) {
+            return new Result(s, List.of(), List.of());
+        }
+
+        BFS.Result bfs = BFS.run(g, s, NEIGHBORHOOD); // only the 2-hop ball is touched
+
+        List<String> near = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : bfs.distance.entrySet()) {
+            String v = e.getKey();
+            int d = e.getValue();
+            if (!v.equals(s) && d <= 2) near.add(v);
+        }
+        Collections.sort(near);
+
+        List<String> path = BFS.shortestPathUnweighted(g, s, t);
+
+        return new Result(s, near, path);
+    }
+
+    /**
+     * Same answers as run(Graph, ...), looked up in a prebuilt index while index.isCurrent(g);
+     * after an edit of g (or with index == null) falls back to BFS. Rebuild the index to speed up again.
+     */
+    public static Result run(Graph g, ReachabilityIndex index, String s, String t) {
+        if (index == null || !index.isCurrent(g)) return run(g, s, t);
+        return run(index, s, t);
+    }
+
+    /**
+     * Answers from the index alone, for its graph (e.g. one loaded with GraphIO.readReachabilityIndex).
+     */
+    public static Result run(ReachabilityIndex index, String s, String t) {
+        if (index == null || s == null || t == null) {
+            return new Result(s, List.of(), List.of());
+        }
+        if (!index.graph().containsVertex(s) || !index.graph().containsVertex(t)) {
+            return new Result(s, List.of(), List.of());
+        }
+        return new Result(s, index.withinDistance2(s), index.shortestPath(s, t));
+    }
+
+    /**
+     * Answers many (S, T) queries at once; element i of the result == run(g, S_i, T_i).
+     * Queries are processed 64 per bit-parallel BFS (one bit per query in a long per vertex).
+     * Freezes g on every call (O(n + m)): for repeated batches freeze once and pass the CompactGraph.
+     */
+    public static List<Result> runBatch(Graph g, List<Query> queries) {
+        return runBatch(g == null ? null : g.freeze(), queries, 2);
+    }
+
+    public static List<Result> runBatch(CompactGraph g, List<Query> queries) {
+        return runBatch(g, queries, 2);
+    }
+
+    /**
+     * Same, with the neighborhood bounded at maxHops instead of 2 (withinDistance2 then holds
+     * every vertex with 1 <= dist <= maxHops). Paths are not bounded, like run().
+     */
+    public static List<Result> runBatch(CompactGraph g, List<Query> queries, int maxHops) {
+        List<Result> out = new ArrayList<>(queries.size());
+        for (int from = 0; from < queries.size(); from += MultiSourceBFS.WIDTH) {
+            List<Query> chunk = queries.subList(from, Math.min(queries.size(), from + MultiSourceBFS.WIDTH));
+            out.addAll(runChunk(g, chunk, maxHops));
+        }
+        return out;
+    }
+
+    // levels of the backward search kept for the path walk (O(n) words); longer paths run their own BFS
+    private static final int KEPT_LEVELS = 16;
+
+    private static List<Result> runChunk(CompactGraph g, List<Query> chunk, int maxHops) {
+        int k = chunk.size();
+        int[] src = new int[k];
+        int[] dst = new int[k];
+        for (int i = 0; i < k; i++) {
+            Query q = chunk.get(i);
+            boolean ok = g != null && q != null && g.containsVertex(q.source) && g.containsVertex(q.target);
+            src[i] = ok ? g.id(q.source) : -1;
+            dst[i] = ok ? g.id(q.target) : -1;
+        }
+
+        List<List<String>> near = new ArrayList<>(k);
+        List<List<String>> paths = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            near.add(new ArrayList<>());
+            paths.add(List.of());
+        }
+
+        if (g != null) {
+            // (i) neighborhood: forward levels 1..maxHops from every source (lists sorted below)
+            MultiSourceBFS.run(g, src, maxHops, null, null, (d, level) -> {
+                if (d == 0) return;
+                for (int v = 0; v < level.length; v++) {
+                    for (long b = level[v]; b != 0; b &= b - 1) near.get(Long.numberOfTrailingZeros(b)).add(g.name(v));
+                }
+            });
+            for (List<String> l : near) Collections.sort(l);
+
+            // (ii) paths: levels from every target over reversed edges (dist to T), until S is reached,
+            // then walk forward from S taking the smallest neighbor one step closer to T each time
+            // -> lexicographically smallest shortest path == the BFS-parent path of run()
+            //    (rows are sorted by name rank, also on a reordered graph)
+            int[] dist = new int[k];
+            List<long[]> back = new ArrayList<>();
+            MultiSourceBFS.run(g.reverse(), dst, Integer.MAX_VALUE, src, dist, (d, level) -> {
+                if (d < KEPT_LEVELS) back.add(level.clone());
+            });
+            int[] toTarget = null; // fallback for paths longer than the kept levels
+            for (int i = 0; i < k; i++) {
+                if (dist[i] < 0) continue;
+                long bit = 1L << i;
+                if (dist[i] > back.size()) {
+                    if (toTarget == null) {
+                        toTarget = new int[g.vertexCount()];
+                        Arrays.fill(toTarget, -1);
+                    }
+                    paths.set(i, walkWithBfs(g, src[i], dst[i], dist[i], toTarget));
+                    continue;
+                }
+
+                List<String> path = new ArrayList<>(dist[i] + 1);
+                int cur = src[i];
+                path.add(g.name(cur));
+                for (int d = dist[i] - 1; d >= 0; d--) {
+                    long[] level = back.get(d);
+                    for (int a = g.begin(cur), end = g.end(cur); a < end; a++) {
+                        int w = g.target(a);
+                        if ((level[w] & bit) != 0) {
+                            cur = w;
+                            break;
+                        }
+                    }
+                    path.add(g.name(cur));
+                }
+                paths.set(i, path);
+            }
+        }
+
+        List<Result> res = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            String s = chunk.get(i) == null ? null : chunk.get(i).source;
+            if (src[i] < 0) res.add(new Result(s, List.of(), List.of()));
+            else res.add(new Result(s, near.get(i), paths.get(i)));
+        }
+        return res;
+    }
+
+    // same walk with dist to T from a single backward BFS that stops once S is found (toTarget: all -1, reset here)
+    private static List<String> walkWithBfs(CompactGraph g, int s, int t, int dist, int[] toTarget) {
+        CompactGraph r = g.reverse();
+        int[] queue = new int[g.vertexCount()];
+        int head = 0, tail = 0;
+        queue[tail++] = t;
+        toTarget[t] = 0;
+        while (head < tail && toTarget[s] < 0) {
+            int u = queue[head++];
+            for (int a = r.begin(u), end = r.end(u); a < end; a++) {
+                int v = r.target(a);
+                if (toTarget[v] >= 0) continue;
+                toTarget[v] = toTarget[u] + 1;
+                queue[tail++] = v;
+            }
+        }
+
+        List<String> path = new ArrayList<>(dist + 1);
+        int cur = s;
+        path.add(g.name(cur));
+        for (int d = dist - 1; d >= 0; d--) {
+            for (int a = g.begin(cur), end = g.end(cur); a < end; a++) {
+                int w = g.target(a);
+                if (toTarget[w] == d) {
+                    cur = w;
+                    break;
+                }
+            }
+            path.add(g.name(cur));
+        }
+        for (int i = 0; i < tail; i++) toTarget[queue[i]] = -1;
+        return path;
+    }
+}
@@ -0,0 +1,167 @@
+package algorithms;
+
+import graph.ConcurrentGraph;
+import graph.Graph;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of full BFS results per start vertex, for skewed workloads where a few
+ * sources get most of the BFS / shortest path / social reachability queries.
+ *
+ * Entries belong to one Graph.version(): the first call that sees a newer version drops them all
+ * (counted as invalidations). Capacity is maxEntries results and maxBytes of estimated traversal
+ * state, whichever is reached first; a result keeps int arrays sized by the graph, so every entry
+ * of one version has the same weight.
+ *
+ * Thread-safe (for a plain Graph, as long as nobody mutates it concurrently); two callers that miss
+ * on the same source at once both compute it.
+ */
+public final class TraversalCache {
+
+    /**
+     * Counters since creation; entries/bytes = current occupancy.
+     */
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long invalidations;
+        public final int entries;
+        public final long bytes;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d (hit rate %.1f%%) evictions=%d invalidations=%d entries=%d bytes=%d",
+                    hits, misses, 100 * hitRate(), evictions, invalidations, entries, bytes);
+        }
+    }
+
+    private final Supplier<Graph> source;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, BFS.Result> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private long version = -1;   // graph version of the cached entries
+    private long entryBytes;     // estimated weight of one entry of this version
+    private long hits, misses, evictions, invalidations;
+
+    public TraversalCache(Graph g, int maxEntries, long maxBytes) {
+        this(g == null ? null : () -> g, maxEntries, maxBytes);
+    }
+
+    /**
+     * Queries always run on the current snapshot; results of older snapshots are never cached.
+     */
+    public TraversalCache(ConcurrentGraph g, int maxEntries, long maxBytes) {
+        this(g == null ? null : g::snapshot, maxEntries, maxBytes);
+    }
+
+    private TraversalCache(Supplier<Graph> source, int maxEntries, long maxBytes) {
+        if (source == null) throw new IllegalArgumentException("Graph cannot be null");
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be >= 1");
+        if (maxBytes < 1) throw new IllegalArgumentException("maxBytes must be >= 1");
+        this.source = source;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * BFS.run(g, s) of the current graph, cached. Empty result if s doesn't exist (not cached).
+     */
+    public BFS.Result bfs(String s) {
+        return bfs(source.get(), s);
+    }
+
+    /**
+     * Same path as BFS.shortestPathUnweighted(g, s, t), from the cached BFS of s.
+     */
+    public List<String> shortestPath(String s, String t) {
+        return bfs(s).pathTo(t);
+    }
+
+    /**
+     * Number of edges s -> t, -1 if unreachable or either vertex is missing.
+     */
+    public int distance(String s, String t) {
+        return bfs(s).distanceTo(t);
+    }
+
+    /**
+     * Same result as SocialReachability.run(g, s, t), from the cached BFS of s.
+     */
+    public SocialReachability.Result social(String s, String t) {
+        Graph g = source.get();
+        if (s == null || t == null || !g.containsVertex(s) || !g.containsVertex(t)) {
+            return new SocialReachability.Result(s, List.of(), List.of());
+        }
+
+        BFS.Result r = bfs(g, s);
+        List<String> near = new ArrayList<>();
+        for (int i = 1; i < r.order.size(); i++) { // order is level by level: the 2-hop ball is a prefix
+            String v = r.order.get(i);
+            if (r.distanceTo(v) > 2) break;
+            near.add(v);
+        }
+        Collections.sort(near);
+        return new SocialReachability.Result(s, near, r.pathTo(t));
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, lru.size(), lru.size() * entryBytes);
+    }
+
+    public synchronized void clear() {
+        lru.clear();
+    }
+
+    private BFS.Result bfs(Graph g, String s) {
+        long v = g.version();
+        synchronized (this) {
+            if (v > version) {
+                invalidations += lru.size();
+                lru.clear();
+                version = v;
+                // dist + parent over all ids, queue over live vertices, plus view/entry overhead
+                entryBytes = 8L * g.idBound() + 4L * g.vertexCount() + 256;
+            }
+            BFS.Result hit = (v == version) ? lru.get(s) : null;
+            if (hit != null) {
+                hits++;
+                return hit;
+            }
+            misses++;
+        }
+
+        BFS.Result r = BFS.run(g, s); // outside the lock: a full traversal
+        if (r.order.isEmpty()) return r;
+
+        synchronized (this) {
+            if (v == version && entryBytes <= maxBytes) {
+                lru.put(s, r);
+                Iterator<String> eldest = lru.keySet().iterator();
+                while (lru.size() > maxEntries || lru.size() * entryBytes > maxBytes) {
+                    eldest.next();
+                    eldest.remove();
+                    evictions++;
+                }
+            }
+        }
+        return r;
+    }
+}
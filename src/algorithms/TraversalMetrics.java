@@ -0,0 +1,176 @@
+package algorithms;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in instrumentation of BFS/DFS: vertices visited, edges scanned, BFS frontier size per level,
+ * max queue/stack size and traversal time (callers can add their own phases, e.g. load), aggregated
+ * into log2-bucket histograms named "<algorithm>.<metric>". Results are lazy views over the
+ * traversal arrays, so there is no separate materialization phase to time.
+ *
+ * Disabled by default: a traversal then only reads one static field, and the per-vertex
+ * bookkeeping sits behind a null check of a local (edge loops are never touched).
+ */
+public final class TraversalMetrics {
+
+    /**
+     * Histogram of non-negative longs with power-of-two buckets; percentiles are bucket upper bounds.
+     */
+    public static final class Histogram {
+        private final long[] buckets = new long[64]; // bucket b: values in [2^(b-1), 2^b), bucket 0: 0
+        private long count, sum;
+        private long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+
+        public synchronized void record(long value) {
+            if (value < 0) throw new IllegalArgumentException("Histogram values must be >= 0");
+            buckets[64 - Long.numberOfLeadingZeros(value)]++;
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        public synchronized long count() {
+            return count;
+        }
+
+        public synchronized long sum() {
+            return sum;
+        }
+
+        public synchronized long min() {
+            return count == 0 ? 0 : min;
+        }
+
+        public synchronized long max() {
+            return count == 0 ? 0 : max;
+        }
+
+        public synchronized double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Upper bound of the bucket holding the q-quantile (0 < q <= 1), at most max().
+         */
+        public synchronized long percentile(double q) {
+            if (q <= 0 || q > 1) throw new IllegalArgumentException("q must be in (0, 1]");
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(q * count), seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b];
+                if (seen >= rank) return b == 0 ? 0 : Math.min(max, (1L << b) - 1);
+            }
+            return max;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("count=%d min=%d p50=%d p99=%d max=%d mean=%.1f",
+                    count, min(), percentile(0.5), percentile(0.99), max(), mean());
+        }
+    }
+
+    private static volatile TraversalMetrics active; // null = disabled
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private TraversalMetrics() {
+    }
+
+    /**
+     * Turns recording on (keeps the current registry if already on) and returns the registry.
+     */
+    public static synchronized TraversalMetrics enable() {
+        if (active == null) active = new TraversalMetrics();
+        return active;
+    }
+
+    public static synchronized void disable() {
+        active = null;
+    }
+
+    /**
+     * The active registry, null if disabled.
+     */
+    public static TraversalMetrics current() {
+        return active;
+    }
+
+    /**
+     * Adds value to histogram name of the active registry; no-op if disabled.
+     */
+    public static void record(String name, long value) {
+        TraversalMetrics m = active;
+        if (m != null) m.histogram(name).record(value);
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Histograms sorted by name.
+     */
+    public Map<String, Histogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    public void dump(PrintStream out) {
+        for (Map.Entry<String, Histogram> e : histograms().entrySet()) {
+            out.println(e.getKey() + ": " + e.getValue());
+        }
+    }
+
+    /**
+     * Probe for one traversal, null if metrics are disabled.
+     */
+    static Probe start(String algorithm) {
+        TraversalMetrics m = active;
+        return m == null ? null : new Probe(m, algorithm);
+    }
+
+    // Per-traversal counters; lives on one thread, flushed into the histograms by traversed().
+    static final class Probe {
+        final TraversalMetrics m;
+        final String name;
+        long edges;
+        int maxWorklist;
+        int level, levelSize;
+        final long mark = System.nanoTime();
+
+        Probe(TraversalMetrics m, String name) {
+            this.m = m;
+            this.name = name;
+        }
+
+        void expand(int degree, int worklist) {
+            edges += degree;
+            if (worklist > maxWorklist) maxWorklist = worklist;
+        }
+
+        // BFS: vertices are dequeued level by level
+        void dequeued(int depth) {
+            if (depth != level) {
+                m.histogram(name + ".frontier").record(levelSize);
+                level = depth;
+                levelSize = 0;
+            }
+            levelSize++;
+        }
+
+        void traversed(int visited) {
+            m.histogram(name + ".traverse_ns").record(System.nanoTime() - mark);
+            m.histogram(name + ".visited").record(visited);
+            m.histogram(name + ".edges_scanned").record(edges);
+            m.histogram(name + ".max_worklist").record(maxWorklist);
+            if (levelSize > 0) m.histogram(name + ".frontier").record(levelSize);
+        }
+    }
+}
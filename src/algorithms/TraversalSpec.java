@@ -0,0 +1,52 @@
+package algorithms;
+
+import java.util.function.Predicate;
+
+/**
+ * Limits for BFS/DFS so callers that only need part of the graph don't scan the whole component:
+ * - maxDepth:   vertices deeper than this (BFS distance / DFS tree depth) are not discovered;
+ * - stopAt:     traversal ends right after a vertex matching the predicate is visited;
+ * - maxVisited: traversal ends after this many vertices were visited.
+ *
+ * Immutable; with*() return a modified copy.
+ */
+public final class TraversalSpec {
+
+    public static final TraversalSpec UNBOUNDED = new TraversalSpec(Integer.MAX_VALUE, null, Integer.MAX_VALUE);
+
+    public final int maxDepth;
+    public final Predicate<String> stopAt;   // null = never stop early
+    public final int maxVisited;
+
+    private TraversalSpec(int maxDepth, Predicate<String> stopAt, int maxVisited) {
+        if (maxDepth < 0) throw new IllegalArgumentException("maxDepth must be >= 0");
+        if (maxVisited < 1) throw new IllegalArgumentException("maxVisited must be >= 1");
+        this.maxDepth = maxDepth;
+        this.stopAt = stopAt;
+        this.maxVisited = maxVisited;
+    }
+
+    public static TraversalSpec maxDepth(int depth) {
+        return UNBOUNDED.withMaxDepth(depth);
+    }
+
+    public static TraversalSpec until(String target) {
+        return UNBOUNDED.withStopAt(target::equals);
+    }
+
+    public TraversalSpec withMaxDepth(int depth) {
+        return new TraversalSpec(depth, stopAt, maxVisited);
+    }
+
+    public TraversalSpec withStopAt(Predicate<String> stop) {
+        return new TraversalSpec(maxDepth, stop, maxVisited);
+    }
+
+    public TraversalSpec withMaxVisited(int count) {
+        return new TraversalSpec(maxDepth, stopAt, count);
+    }
+
+    boolean shouldStop(String visited, int visitedCount) {
+        return visitedCount >= maxVisited || (stopAt != null && stopAt.test(visited));
+    }
+}
@@ -0,0 +1,238 @@
+package algorithms;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.IdNeighborVisitor;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy BFS/DFS as Stream<String>: each vertex is discovered/expanded only when the stream pulls it,
+ * so limit()/takeWhile()/findFirst() end the traversal early. Same order and TraversalSpec semantics
+ * as BFS.run / DFS.recursive. The graph must not be modified while a stream is consumed.
+ */
+final class TraversalStreams {
+
+    private TraversalStreams() {
+    }
+
+    // id-level adjacency of Graph / CompactGraph
+    private interface Adjacency extends IdViews.Names {
+        int idBound();
+
+        int vertexCount();
+
+        void forEachNeighbor(int u, IdNeighborVisitor visitor);
+
+        PrimitiveIterator.OfInt neighbors(int u);
+    }
+
+    static Stream<String> bfs(Graph g, String start, TraversalSpec spec) {
+        if (g == null || start == null || !g.containsVertex(start)) return Stream.empty();
+        return StreamSupport.stream(new Bfs(of(g), g.idOf(start), spec), false);
+    }
+
+    static Stream<String> bfs(CompactGraph g, String start, TraversalSpec spec) {
+        int s = (g == null) ? -1 : g.id(start);
+        if (s < 0) return Stream.empty();
+        return StreamSupport.stream(new Bfs(of(g), s, spec), false);
+    }
+
+    static Stream<String> dfs(Graph g, String start, TraversalSpec spec) {
+        if (g == null || start == null || !g.containsVertex(start)) return Stream.empty();
+        return StreamSupport.stream(new Dfs(of(g), g.idOf(start), spec), false);
+    }
+
+    static Stream<String> dfs(CompactGraph g, String start, TraversalSpec spec) {
+        int s = (g == null) ? -1 : g.id(start);
+        if (s < 0) return Stream.empty();
+        return StreamSupport.stream(new Dfs(of(g), s, spec), false);
+    }
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+
+    // emits a vertex when it is dequeued, expanding it at the same time;
+    // discovered ids are slots in discovery order (== the queue), dist is per slot
+    private static final class Bfs extends Spliterators.AbstractSpliterator<String> implements IdNeighborVisitor {
+        final Adjacency g;
+        final TraversalSpec spec;
+        final IdSlots seen;
+        int[] dist = new int[16];
+        int head;
+        int du;
+        boolean done;
+
+        Bfs(Adjacency g, int s, TraversalSpec spec) {
+            super(g.vertexCount(), CHARACTERISTICS);
+            this.g = g;
+            this.spec = spec;
+            seen = new IdSlots(g.idBound());
+            seen.add(s);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (done || head == seen.size()) return false;
+            int u = seen.id(head);
+            du = dist[head++];
+            String name = g.name(u);
+            if (spec.shouldStop(name, head)) done = true;
+            else if (du < spec.maxDepth) g.forEachNeighbor(u, this);
+            action.accept(name);
+            return true;
+        }
+
+        @Override
+        public boolean visit(int v) {
+            if (!seen.contains(v)) {
+                int k = seen.add(v);
+                if (k == dist.length) dist = Arrays.copyOf(dist, k * 2);
+                dist[k] = du + 1;
+            }
+            return true;
+        }
+    }
+
+    // recursive-order DFS with an explicit path of neighbor cursors; finds the next vertex on demand
+    private static final class Dfs extends Spliterators.AbstractSpliterator<String> {
+        final Adjacency g;
+        final TraversalSpec spec;
+        final IdSlots visited;
+        final List<PrimitiveIterator.OfInt> cursors = new ArrayList<>();
+        int depth;
+        int count;
+        int next; // vertex to enter on the next pull, -1 = search it first
+        boolean done;
+
+        Dfs(Adjacency g, int s, TraversalSpec spec) {
+            super(g.vertexCount(), CHARACTERISTICS);
+            this.g = g;
+            this.spec = spec;
+            visited = new IdSlots(g.idBound());
+            next = s;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (done) return false;
+            int v = next >= 0 ? next : nextUnvisited();
+            next = -1;
+            if (v < 0) {
+                done = true;
+                return false;
+            }
+
+            visited.add(v);
+            count++;
+            String name = g.name(v);
+            if (spec.shouldStop(name, count)) {
+                done = true;
+            } else if (depth < spec.maxDepth) {
+                depth++;
+                cursors.add(g.neighbors(v));
+            }
+            action.accept(name);
+            return true;
+        }
+
+        // next undiscovered neighbor of the deepest frame, popping finished frames
+        private int nextUnvisited() {
+            while (depth > 0) {
+                PrimitiveIterator.OfInt it = cursors.get(depth - 1);
+                while (it.hasNext()) {
+                    int w = it.nextInt();
+                    if (!visited.contains(w)) return w;
+                }
+                cursors.remove(--depth);
+            }
+            return -1;
+        }
+    }
+
+    private static Adjacency of(Graph g) {
+        return new Adjacency() {
+            @Override
+            public int id(String name) {
+                return g.idOf(name);
+            }
+
+            @Override
+            public String name(int id) {
+                return g.nameOf(id);
+            }
+
+            @Override
+            public int idBound() {
+                return g.idBound();
+            }
+
+            @Override
+            public int vertexCount() {
+                return g.vertexCount();
+            }
+
+            @Override
+            public void forEachNeighbor(int u, IdNeighborVisitor visitor) {
+                g.forEachNeighborId(u, visitor);
+            }
+
+            @Override
+            public PrimitiveIterator.OfInt neighbors(int u) {
+                return g.neighborIdIterator(u);
+            }
+        };
+    }
+
+    private static Adjacency of(CompactGraph g) {
+        return new Adjacency() {
+            @Override
+            public int id(String name) {
+                return name == null ? -1 : g.id(name);
+            }
+
+            @Override
+            public String name(int id) {
+                return g.name(id);
+            }
+
+            @Override
+            public int idBound() {
+                return g.vertexCount();
+            }
+
+            @Override
+            public int vertexCount() {
+                return g.vertexCount();
+            }
+
+            @Override
+            public void forEachNeighbor(int u, IdNeighborVisitor visitor) {
+                for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+                    if (!visitor.visit(g.target(a))) return;
+                }
+            }
+
+            @Override
+            public PrimitiveIterator.OfInt neighbors(int u) {
+                return new PrimitiveIterator.OfInt() {
+                    int a = g.begin(u);
+                    final int end = g.end(u);
+
+                    @Override
+                    public boolean hasNext() {
+                        return a < end;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (a >= end) throw new NoSuchElementException();
+                        return g.target(a++);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package graph;
+
+/**
+ * Packed boolean adjacency matrix: bit (i, j) set iff there is an arc i -> j (weights ignored).
+ * n*n bits = 1/32 of the dense int[n][n]; rows are long words, so row operations
+ * (intersections, counts) work 64 columns at a time.
+ * Row/column i is vertex labels[i], the same sorted order as Graph.toAdjMatrix().
+ */
+public final class BitMatrix {
+    public final String[] labels;
+    private final int words;   // longs per row
+    private final long[] bits;
+
+    BitMatrix(String[] labels) {
+        int n = labels.length;
+        this.labels = labels;
+        this.words = (n + 63) >>> 6;
+        long total = (long) n * words;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph too large for a bit matrix: " + n + " vertices");
+        }
+        this.bits = new long[(int) total];
+    }
+
+    static BitMatrix of(CompactGraph g) {
+        BitMatrix m = new BitMatrix(g.vertices().toArray(new String[0]));
+        for (int u = 0; u < g.vertexCount(); u++) {
+            for (int a = g.begin(u), end = g.end(u); a < end; a++) m.set(u, g.target(a));
+        }
+        return m;
+    }
+
+    private void set(int i, int j) {
+        bits[i * words + (j >>> 6)] |= 1L << j;
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    public boolean get(int i, int j) {
+        return (bits[i * words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    /**
+     * Number of set bits in row i (out-degree).
+     */
+    public int rowCount(int i) {
+        int c = 0;
+        for (int w = i * words, end = w + words; w < end; w++) c += Long.bitCount(bits[w]);
+        return c;
+    }
+
+    /**
+     * Number of columns set in both rows i and j (common out-neighbors).
+     */
+    public int commonCount(int i, int j) {
+        int c = 0;
+        for (int w = 0; w < words; w++) c += Long.bitCount(bits[i * words + w] & bits[j * words + w]);
+        return c;
+    }
+
+    /**
+     * Dense 1/0 form, equal to Graph.toAdjMatrix() of an unweighted graph.
+     */
+    public int[][] toDense() {
+        int n = labels.length;
+        int[][] m = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) m[i][j] = get(i, j) ? 1 : 0;
+        }
+        return m;
+    }
+}
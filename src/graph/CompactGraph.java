@@ -0,0 +1,448 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Frozen, read-optimized CSR (compressed sparse row) graph.
+ *
+ * Vertices are dense int ids 0..n-1 assigned in the same sorted order as Graph.vertices(),
+ * so id order == name order and every adjacency row is sorted -> same determinism as Graph.
+ *
+ * reorder() relabels ids for memory locality (see VertexOrder). The name rank of every id is kept
+ * (rank / idAtRank), rows stay sorted by name rank, and vertices() stays in name order, so every
+ * algorithm returns exactly what it returns on the name-ordered graph.
+ *
+ * Row u lives in targets[offsets[u] .. offsets[u+1]); weights (if weighted) are parallel to targets.
+ * In UNDIRECTED graphs every edge is stored in both rows, exactly like Graph.
+ */
+public final class CompactGraph {
+    private final boolean directed;
+    private final boolean weighted;
+
+    private final String[] names;            // id -> name
+    private final Map<String, Integer> ids;  // name -> id
+    private final int[] offsets;             // length n+1
+    private final int[] targets;             // length = stored arcs
+    private final int[] weights;             // null for unweighted graphs
+
+    // after reorder(): rank[id] = position of the vertex in name order, byRank = inverse;
+    // null -> ids are in name order
+    private final int[] rank;
+    private final int[] byRank;
+
+    private volatile CompactGraph reverse;   // lazily built transpose (DIRECTED only)
+
+    CompactGraph(boolean directed, boolean weighted, String[] names,
+                 int[] offsets, int[] targets, int[] weights) {
+        this(directed, weighted, names, indexOf(names), offsets, targets, weights, null, null);
+    }
+
+    private CompactGraph(boolean directed, boolean weighted, String[] names, Map<String, Integer> ids,
+                         int[] offsets, int[] targets, int[] weights, int[] rank, int[] byRank) {
+        this.directed = directed;
+        this.weighted = weighted;
+        this.names = names;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.rank = rank;
+        this.byRank = byRank;
+    }
+
+    private static Map<String, Integer> indexOf(String[] names) {
+        Map<String, Integer> ids = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) ids.put(names[i], i);
+        return ids;
+    }
+
+    /**
+     * Wraps ready CSR arrays (e.g. loaded from a binary snapshot); arrays are used as-is, not copied.
+     * names must be sorted and unique, offsets non-decreasing, rows strictly increasing target ids
+     * in [0, n); checked in O(n + m), IllegalArgumentException otherwise.
+     */
+    public static CompactGraph of(boolean directed, boolean weighted, String[] names,
+                                  int[] offsets, int[] targets, int[] weights) {
+        int n = names.length;
+        if (offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != targets.length)
+            throw new IllegalArgumentException("Bad CSR offsets");
+        if (weighted != (weights != null) || (weights != null && weights.length != targets.length))
+            throw new IllegalArgumentException("Bad CSR weights");
+        for (int u = 0; u < n; u++) {
+            if (names[u] == null || (u > 0 && names[u - 1].compareTo(names[u]) >= 0))
+                throw new IllegalArgumentException("Names not sorted and unique at id " + u);
+            if (offsets[u] > offsets[u + 1]) throw new IllegalArgumentException("Bad CSR offsets at id " + u);
+            for (int a = offsets[u], prev = -1; a < offsets[u + 1]; prev = targets[a++]) {
+                if (targets[a] <= prev || targets[a] >= n)
+                    throw new IllegalArgumentException("Bad CSR row " + u + ": target " + targets[a]);
+            }
+        }
+        return new CompactGraph(directed, weighted, names, offsets, targets, weights);
+    }
+
+    /**
+     * Snapshot of an existing Graph. Later changes to g are not visible here.
+     */
+    public static CompactGraph from(Graph g) {
+        if (g == null) throw new IllegalArgumentException("Graph cannot be null");
+
+        List<String> verts = g.vertices(); // sorted
+        int n = verts.size();
+        String[] names = verts.toArray(new String[0]);
+        Map<String, Integer> idx = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) idx.put(names[i], i);
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[g.edgeCountStored()];
+        int[] weights = g.isWeighted() ? new int[targets.length] : null;
+
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            offsets[u] = k;
+            for (Edge e : g.edgeSet(names[u])) { // TreeSet -> already sorted by name == sorted by id
+                targets[k] = idx.get(e.to());
+                if (weights != null) weights[k] = e.weight();
+                k++;
+            }
+        }
+        offsets[n] = k;
+        return new CompactGraph(g.isDirected(), g.isWeighted(), names, offsets, targets, weights);
+    }
+
+    /**
+     * Bulk build from a list of arcs given in insertion order.
+     * names must be sorted (String natural order) and contain every endpoint.
+     * Duplicate arcs are dropped, the first one wins (same as Graph.addEdge with TreeSet).
+     * For UNDIRECTED graphs pass every edge once; the reverse arc is added here.
+     */
+    public static CompactGraph fromArcs(boolean directed, boolean weighted, String[] names,
+                                        int[] src, int[] dst, int[] w, int count) {
+        return fromArcs(directed, weighted, names, src, dst, w, count, 1);
+    }
+
+    /**
+     * Same, with the per-row sorts spread over threads workers (threads <= 0 -> all processors).
+     * The input arrays are not modified.
+     */
+    public static CompactGraph fromArcs(boolean directed, boolean weighted, String[] names,
+                                        int[] src, int[] dst, int[] w, int count, int threads) {
+        int n = names.length;
+        int total = directed ? count : count * 2;
+
+        // 1) stable counting sort by source (reverse arc right after the forward one keeps first-wins order)
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[src[i] + 1]++;
+            if (!directed) offsets[dst[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) offsets[i + 1] += offsets[i];
+
+        int[] pos = Arrays.copyOf(offsets, n);
+        int[] tgt = new int[total];
+        int[] wt = weighted ? new int[total] : null;
+        for (int i = 0; i < count; i++) {
+            int p = pos[src[i]]++;
+            tgt[p] = dst[i];
+            if (wt != null) wt[p] = w[i];
+            if (!directed) {
+                int q = pos[dst[i]]++;
+                tgt[q] = src[i];
+                if (wt != null) wt[q] = w[i];
+            }
+        }
+
+        // 2) sort each row by target and drop duplicates in place: row u keeps its start, len[u] = new size
+        int[] len = new int[n];
+        int p = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        if (p == 1 || total < 4096) {
+            sortRows(offsets, tgt, wt, len, 0, n);
+        } else {
+            // contiguous row ranges with about the same number of arcs, a few per worker
+            int chunks = p * 4;
+            int[] bounds = new int[chunks + 1];
+            for (int c = 1, u = 0; c <= chunks; c++) {
+                long target = (long) total * c / chunks;
+                while (u < n && offsets[u] < target) u++;
+                bounds[c] = (c == chunks) ? n : u;
+            }
+            ForkJoinPool pool = new ForkJoinPool(p);
+            try {
+                pool.submit(() -> IntStream.range(0, chunks).parallel()
+                        .forEach(c -> sortRows(offsets, tgt, wt, len, bounds[c], bounds[c + 1]))).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // 3) close the gaps left by duplicates
+        int[] newOffsets = new int[n + 1];
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            newOffsets[u] = k;
+            System.arraycopy(tgt, offsets[u], tgt, k, len[u]);
+            if (wt != null) System.arraycopy(wt, offsets[u], wt, k, len[u]);
+            k += len[u];
+        }
+        newOffsets[n] = k;
+
+        int[] targets = (k == total) ? tgt : Arrays.copyOf(tgt, k);
+        int[] weights = !weighted ? null : (k == total) ? wt : Arrays.copyOf(wt, k);
+        return new CompactGraph(directed, weighted, names, newOffsets, targets, weights);
+    }
+
+    // sorts and deduplicates rows [from, to) in place
+    private static void sortRows(int[] offsets, int[] tgt, int[] wt, int[] len, int from, int to) {
+        long[] keys = null;
+        int[] rowW = null;
+        for (int u = from; u < to; u++) {
+            int start = offsets[u], end = offsets[u + 1];
+            int k = start;
+            if (wt == null) {
+                Arrays.sort(tgt, start, end);
+                for (int i = start; i < end; i++) {
+                    if (i > start && tgt[i] == tgt[i - 1]) continue;
+                    tgt[k++] = tgt[i];
+                }
+            } else {
+                // (target, position) keys -> stable order, so the first weight wins on duplicates
+                int rowLen = end - start;
+                if (keys == null || keys.length < rowLen) {
+                    keys = new long[Math.max(rowLen, 16)];
+                    rowW = new int[keys.length]; // row weights copy: compaction overwrites wt
+                }
+                for (int i = 0; i < rowLen; i++) keys[i] = ((long) tgt[start + i] << 32) | i;
+                System.arraycopy(wt, start, rowW, 0, rowLen);
+                Arrays.sort(keys, 0, rowLen);
+                int prev = -1;
+                for (int i = 0; i < rowLen; i++) {
+                    int t = (int) (keys[i] >>> 32);
+                    if (t == prev) continue;
+                    prev = t;
+                    tgt[k] = t;
+                    wt[k] = rowW[(int) keys[i]];
+                    k++;
+                }
+            }
+            len[u] = k - start;
+        }
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    public int vertexCount() {
+        return names.length;
+    }
+
+    /**
+     * Количество сохранённых дуг (как Graph.edgeCountStored()).
+     */
+    public int edgeCountStored() {
+        return targets.length;
+    }
+
+    public int edgeCountLogical() {
+        return directed ? targets.length : targets.length / 2;
+    }
+
+    public boolean containsVertex(String v) {
+        return v != null && ids.containsKey(v);
+    }
+
+    /**
+     * Vertex id for a name, or -1 if the vertex doesn't exist.
+     */
+    public int id(String v) {
+        if (v == null) return -1;
+        Integer i = ids.get(v);
+        return i == null ? -1 : i;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * All vertices in name order (also after reorder()).
+     */
+    public List<String> vertices() {
+        if (byRank == null) return Collections.unmodifiableList(Arrays.asList(names));
+        String[] sorted = new String[names.length];
+        for (int r = 0; r < sorted.length; r++) sorted[r] = names[byRank[r]];
+        return Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    /**
+     * true if ids were relabeled by reorder() (id order != name order).
+     */
+    public boolean isReordered() {
+        return rank != null;
+    }
+
+    /**
+     * Position of vertex id in name order; == id unless the graph was reordered.
+     * Rows are sorted by rank, and "smallest vertex" in every algorithm means smallest rank.
+     */
+    public int rank(int id) {
+        return rank == null ? id : rank[id];
+    }
+
+    /**
+     * Inverse of rank(): id of the r-th vertex in name order.
+     */
+    public int idAtRank(int r) {
+        return byRank == null ? r : byRank[r];
+    }
+
+    /**
+     * Same graph with ids relabeled in the given order (VertexOrder.NAME -> name order again).
+     * Names, rows (as name sequences), weights and all algorithm results are unchanged.
+     */
+    public CompactGraph reorder(VertexOrder order) {
+        if (order == null) throw new IllegalArgumentException("Vertex order cannot be null");
+        if (order == VertexOrder.NAME) return inNameOrder();
+        return relabel(order.permutation(this));
+    }
+
+    /**
+     * This graph with ids in name order (itself if it was never reordered).
+     */
+    public CompactGraph inNameOrder() {
+        return byRank == null ? this : relabel(byRank);
+    }
+
+    // perm[newId] = current id; row order is kept, so rows stay sorted by name rank
+    private CompactGraph relabel(int[] perm) {
+        int n = names.length;
+        int[] newId = new int[n];
+        for (int i = 0; i < n; i++) newId[perm[i]] = i;
+
+        String[] nn = new String[n];
+        int[] nRank = new int[n];
+        int[] off = new int[n + 1];
+        int[] tg = new int[targets.length];
+        int[] wt = weighted ? new int[targets.length] : null;
+        boolean identity = true;
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            int old = perm[u];
+            nn[u] = names[old];
+            nRank[u] = rank(old);
+            identity &= nRank[u] == u;
+            off[u] = k;
+            for (int a = offsets[old]; a < offsets[old + 1]; a++, k++) {
+                tg[k] = newId[targets[a]];
+                if (wt != null) wt[k] = weights[a];
+            }
+        }
+        off[n] = k;
+
+        if (identity) return new CompactGraph(directed, weighted, nn, indexOf(nn), off, tg, wt, null, null);
+        int[] nByRank = new int[n];
+        for (int u = 0; u < n; u++) nByRank[nRank[u]] = u;
+        return new CompactGraph(directed, weighted, nn, indexOf(nn), off, tg, wt, nRank, nByRank);
+    }
+
+    public int degree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    /**
+     * First arc index of row u; row u is [begin(u), end(u)).
+     */
+    public int begin(int u) {
+        return offsets[u];
+    }
+
+    public int end(int u) {
+        return offsets[u + 1];
+    }
+
+    public int target(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * Weight of an arc; 1 for unweighted graphs.
+     */
+    public int weight(int arc) {
+        return weights == null ? 1 : weights[arc];
+    }
+
+    /**
+     * Transposed graph (v->u for every u->v), rows sorted by rank, same ids and names.
+     * For UNDIRECTED graphs this is the graph itself. Built once and cached.
+     */
+    public CompactGraph reverse() {
+        if (!directed) return this;
+        CompactGraph r = reverse;
+        if (r == null) {
+            int n = names.length;
+            int[] roff = new int[n + 1];
+            for (int t : targets) roff[t + 1]++;
+            for (int i = 0; i < n; i++) roff[i + 1] += roff[i];
+
+            int[] pos = Arrays.copyOf(roff, n);
+            int[] rt = new int[targets.length];
+            int[] rw = weighted ? new int[targets.length] : null;
+            // sources visited in name order -> every reversed row comes out sorted
+            for (int i = 0; i < n; i++) {
+                int u = idAtRank(i);
+                for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                    int p = pos[targets[a]]++;
+                    rt[p] = u;
+                    if (rw != null) rw[p] = weights[a];
+                }
+            }
+            r = new CompactGraph(true, weighted, names, ids, roff, rt, rw, rank, byRank);
+            r.reverse = this;
+            reverse = r;
+        }
+        return r;
+    }
+
+    /**
+     * Same contract as Graph.toAdjMatrix(): 1/0 or weight, vertices in sorted order.
+     */
+    public int[][] toAdjMatrix() {
+        if (rank != null) return inNameOrder().toAdjMatrix();
+        int n = names.length;
+        int[][] m = new int[n][n];
+        for (int u = 0; u < n; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                m[u][targets[a]] = weighted ? weights[a] : 1;
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Sparse CSR adjacency matrix (arrays are copies); same order and values as toAdjMatrix().
+     */
+    public SparseMatrix toSparseMatrix() {
+        if (rank != null) return inNameOrder().toSparseMatrix();
+        return new SparseMatrix(names.clone(), offsets.clone(), targets.clone(),
+                weighted ? weights.clone() : null);
+    }
+
+    /**
+     * Packed n*n bit matrix of arc presence (weights ignored).
+     */
+    public BitMatrix toBitMatrix() {
+        return BitMatrix.of(inNameOrder());
+    }
+
+    /**
+     * Back to a mutable Graph (same vertices, edges and weights).
+     */
+    public Graph toGraph() {
+        return Graph.fromCompact(inNameOrder(), false); // rows are sorted -> linear TreeMap/TreeSet build
+    }
+}
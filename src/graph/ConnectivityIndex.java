@@ -0,0 +1,143 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Incremental connectivity of a Graph: union-find (union by rank + path halving) over Graph ids.
+ *
+ * Obtained via Graph.connectivity(); from then on the graph keeps it up to date on
+ * addVertex/addEdge in near-constant time. removeEdge/removeVertex can split components,
+ * which union-find cannot undo, so they only mark the index stale and the next query rebuilds it.
+ *
+ * Edge direction is ignored: for DIRECTED graphs these are weakly connected components.
+ * Not thread-safe (same as Graph).
+ */
+public final class ConnectivityIndex {
+    private final Graph g;
+
+    private int[] parent = new int[16];   // indexed by Graph.idOf
+    private byte[] rank = new byte[16];   // rank <= log2(n) < 128
+    private int size;                     // ids [0, size) are initialized
+    private int components;
+    private boolean stale = true;
+    private int rebuilds;
+
+    ConnectivityIndex(Graph g) {
+        this.g = g;
+    }
+
+    /**
+     * true if u and v are in the same component (false if either vertex is missing).
+     */
+    public boolean connected(String u, String v) {
+        ensureFresh();
+        return g.containsVertex(u) && g.containsVertex(v) && find(g.idOf(u)) == find(g.idOf(v));
+    }
+
+    /**
+     * Component label of u: equal for vertices of the same component, -1 if u is missing.
+     * Labels are only comparable between two mutations of the graph.
+     */
+    public int componentOf(String u) {
+        ensureFresh();
+        return g.containsVertex(u) ? find(g.idOf(u)) : -1;
+    }
+
+    public int componentCount() {
+        ensureFresh();
+        return components;
+    }
+
+    /**
+     * All components in the same format as DFS.connectedComponentsUndirected:
+     * each component sorted, components ordered by their smallest vertex.
+     */
+    public List<List<String>> components() {
+        ensureFresh();
+        Map<Integer, List<String>> byRoot = new LinkedHashMap<>();
+        for (String v : g.vertices()) { // sorted -> first occurrence of a root is its smallest vertex
+            byRoot.computeIfAbsent(find(g.idOf(v)), k -> new ArrayList<>()).add(v);
+        }
+        return new ArrayList<>(byRoot.values());
+    }
+
+    /**
+     * How many times the index was rebuilt from scratch (initial build included).
+     */
+    public int rebuildCount() {
+        return rebuilds;
+    }
+
+    // ---------- hooks called by Graph ----------
+
+    void vertexAdded(String v) {
+        if (stale) return;
+        int id = g.idOf(v);
+        while (size <= id) { // new ids are handed out sequentially
+            slot();
+            components++;
+        }
+    }
+
+    void edgeAdded(String u, String v) {
+        if (!stale) union(g.idOf(u), g.idOf(v));
+    }
+
+    void invalidate() {
+        stale = true;
+    }
+
+    // ---------- union-find ----------
+
+    private void ensureFresh() {
+        if (!stale) return;
+        size = 0;
+        int bound = g.idBound();
+        if (parent.length < bound) {
+            parent = new int[bound];
+            rank = new byte[bound];
+        }
+        while (size < bound) slot(); // ids of removed vertices get a slot too, they are never queried
+        components = g.vertexCount();
+        for (int u = 0; u < bound; u++) {
+            int a = u;
+            g.forEachNeighborId(u, v -> { // removed vertices have no row
+                union(a, v);
+                return true;
+            });
+        }
+        stale = false;
+        rebuilds++;
+    }
+
+    private void slot() {
+        if (size == parent.length) {
+            parent = Arrays.copyOf(parent, size * 2);
+            rank = Arrays.copyOf(rank, size * 2);
+        }
+        parent[size] = size;
+        rank[size] = 0;
+        size++;
+    }
+
+    private int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra == rb) return;
+        if (rank[ra] < rank[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        if (rank[ra] == rank[rb]) rank[ra]++;
+        components--;
+    }
+}
@@ -1,3 +1,10 @@
- package graph;
+package graph;
 
-public record Edge(String to, Integer weight) { }
+/**
+ * Arc to vertex "to"; toId = Graph id of "to" (-1 in lookup probes). Rows compare by "to" only.
+ */
+public record Edge(String to, Integer weight, int toId) {
+    public Edge(String to, Integer weight) {
+        this(to, weight, -1);
+    }
+}
@@ -0,0 +1,10 @@
+package graph;
+
+/**
+ * Callback for Graph.forEachEdge: neighbor + edge weight (1 for unweighted graphs).
+ * Return false to stop the iteration early.
+ */
+@FunctionalInterface
+public interface EdgeVisitor {
+    boolean visit(String v, int weight);
+}
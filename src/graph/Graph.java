@@ -1,18 +1,134 @@
 package graph;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Graph {
+    // Порядок дуг в строке (один экземпляр на все строки - нужен для линейной массовой загрузки)
+    private static final Comparator<Edge> BY_TARGET = Comparator.comparing(Edge::to);
+
     private final GraphType type;
     private final boolean weighted;
 
     // TreeMap + TreeSet -> детерминированный порядок вершин/соседей (важно по заданию)
-    private final Map<String, Set<Edge>> adj = new TreeMap<>();
+    private final Map<String, NavigableSet<Edge>> adj;
     private int edgesStored = 0; // кол-во сохранённых дуг (в UNDIRECTED хранится в обе стороны)
 
+    // Входящие дуги v <- u (только DIRECTED и только если включено); в UNDIRECTED входящие == исходящие
+    private final Map<String, NavigableSet<String>> radj;
+
+    // Интернирование имён: плотные int id (в порядке добавления), id -> строка смежности.
+    // id не переиспользуются; удалённая вершина сохраняет свой id (строка = null).
+    // names только дописывается (при росте копируется в новый массив), а ids - ConcurrentHashMap:
+    // NameTable = (names, длина, ids) читается без копирования, даже пока граф меняется
+    private final Map<String, Integer> ids;
+    private String[] names;
+    private int nameCount;
+    private final ArrayList<NavigableSet<Edge>> rowsById;
+
+    // Индекс связности (union-find), создаётся по первому запросу connectivity()
+    private ConnectivityIndex connectivity;
+
+    // Copy-on-write (ConcurrentGraph): строки, уже скопированные этим графом; null -> все строки свои
+    private Set<String> ownedRows;
+    private Set<String> ownedInRows;
+    private boolean readOnly;
+
+    // Счётчик изменений: растёт при каждом изменении структуры (кэши результатов сверяются с ним)
+    private long version;
+
     public Graph(GraphType type, boolean weighted) {
+        this(type, weighted, false);
+    }
+
+    /**
+     * trackIncoming = true -> для DIRECTED дополнительно хранится индекс входящих дуг
+     * (нужен обратным обходам, например двунаправленному BFS). Для UNDIRECTED игнорируется.
+     */
+    public Graph(GraphType type, boolean weighted, boolean trackIncoming) {
         this.type = type;
         this.weighted = weighted;
+        this.adj = new TreeMap<>();
+        this.radj = (trackIncoming && type == GraphType.DIRECTED) ? new TreeMap<>() : null;
+        this.ids = new ConcurrentHashMap<>();
+        this.names = new String[16];
+        this.rowsById = new ArrayList<>();
+    }
+
+    // Копия для copy-on-write: внешние карты копируются (линейно, они уже отсортированы),
+    // множества соседей разделяются с base и копируются только перед первым изменением
+    private Graph(Graph base) {
+        this.type = base.type;
+        this.weighted = base.weighted;
+        this.adj = new TreeMap<>(base.adj);
+        this.radj = (base.radj == null) ? null : new TreeMap<>(base.radj);
+        this.edgesStored = base.edgesStored;
+        this.version = base.version;
+        this.ids = new ConcurrentHashMap<>(base.ids);
+        this.names = Arrays.copyOf(base.names, base.names.length);
+        this.nameCount = base.nameCount;
+        this.rowsById = new ArrayList<>(base.rowsById);
+        this.ownedRows = new HashSet<>();
+        this.ownedInRows = new HashSet<>();
+    }
+
+    /**
+     * Изменяемая копия, разделяющая неизменённые строки с этим графом.
+     * Сам граф после этого менять нельзя (иначе изменения увидит и копия).
+     */
+    Graph copyOnWrite() {
+        return new Graph(this);
+    }
+
+    // Та же версия и содержимое, но id = 0..vertexCount()-1 (ConcurrentGraph после смены вершин)
+    Graph withCompactIds() {
+        Graph g = fromCompact(freeze(), hasIncomingIndex());
+        g.version = version;
+        return g;
+    }
+
+    void markReadOnly() {
+        readOnly = true;
+    }
+
+    /**
+     * true для опубликованных снимков ConcurrentGraph: любые изменения -> IllegalStateException.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Версия графа: меняется при каждом addVertex (новой вершины), addEdge (нового ребра),
+     * removeEdge / removeVertex / removeVertices (что-то удалено). Равные версии одного графа
+     * (и его снимков в ConcurrentGraph) -> одинаковое содержимое.
+     */
+    public long version() {
+        return version;
+    }
+
+    private void checkWritable() {
+        if (readOnly) throw new IllegalStateException("Graph snapshot is read-only");
+    }
+
+    // Строка u для записи: разделяемая со снимком копируется (TreeSet(SortedSet) - линейно)
+    private NavigableSet<Edge> ownRow(String u) {
+        NavigableSet<Edge> row = adj.get(u);
+        if (ownedRows != null && ownedRows.add(u)) {
+            row = new TreeSet<>(row);
+            adj.put(u, row);
+            rowsById.set(ids.get(u), row);
+        }
+        return row;
+    }
+
+    private NavigableSet<String> ownInRow(String v) {
+        NavigableSet<String> row = radj.get(v);
+        if (ownedInRows != null && ownedInRows.add(v)) {
+            row = new TreeSet<>(row);
+            radj.put(v, row);
+        }
+        return row;
     }
 
     public boolean isDirected() {
@@ -25,7 +141,27 @@ public class Graph {
 
     public void addVertex(String v) {
         if (v == null) throw new IllegalArgumentException("Vertex cannot be null");
-        adj.computeIfAbsent(v, k -> new TreeSet<>(Comparator.comparing(Edge::to)));
+        checkWritable();
+        adj.computeIfAbsent(v, k -> {
+            if (ownedRows != null) ownedRows.add(k);
+            version++;
+            NavigableSet<Edge> row = new TreeSet<>(BY_TARGET);
+            Integer id = ids.get(k);
+            if (id == null) {
+                intern(k);
+                rowsById.add(row);
+            } else {
+                rowsById.set(id, row); // повторное добавление удалённой вершины
+            }
+            return row;
+        });
+        if (radj != null) {
+            radj.computeIfAbsent(v, k -> {
+                if (ownedInRows != null) ownedInRows.add(k);
+                return new TreeSet<>();
+            });
+        }
+        if (connectivity != null) connectivity.vertexAdded(v);
     }
 
     public boolean containsVertex(String v) {
@@ -40,6 +176,168 @@ public class Graph {
         return adj.size();
     }
 
+    /**
+     * Плотный int id вершины (-1, если вершина ни разу не добавлялась).
+     * id выдаются в порядке добавления и не переиспользуются: удалённая вершина сохраняет id,
+     * поэтому пара idOf/nameOf остаётся корректной для результатов, полученных раньше.
+     */
+    public int idOf(String v) {
+        Integer id = (v == null) ? null : ids.get(v);
+        return id == null ? -1 : id;
+    }
+
+    public String nameOf(int id) {
+        Objects.checkIndex(id, nameCount);
+        return names[id];
+    }
+
+    // новое имя получает id = nameCount; ids пишется последним (NameTable ищет id < своей длины)
+    private void intern(String v) {
+        if (nameCount == names.length) names = Arrays.copyOf(names, nameCount * 2);
+        names[nameCount] = v;
+        ids.put(v, nameCount++);
+    }
+
+    /**
+     * Верхняя граница id (все id < idBound()) - размер массивов состояния обхода.
+     * Растёт с каждым новым именем и не уменьшается при удалениях: при постоянной смене вершин
+     * она обгоняет vertexCount(). ConcurrentGraph перенумеровывает id в снимках, когда
+     * idBound() > 2 * vertexCount() (см. ConcurrentGraph.update).
+     */
+    public int idBound() {
+        return nameCount;
+    }
+
+    /**
+     * Неизменяемый снимок пар id <-> имя (все id < idBound() на момент вызова), за O(1):
+     * id не переиспользуются, поэтому снимок - это текущий массив имён и его длина
+     * плюс общая карта имя -> id, отфильтрованная по длине.
+     * Результаты обходов держат его, а не сам граф: их можно читать, пока граф меняется,
+     * и они не удерживают в памяти строки смежности.
+     */
+    public NameTable nameTable() {
+        return new NameTable(names, nameCount, ids);
+    }
+
+    public static final class NameTable {
+        private final String[] names; // [0, size) никогда не меняется
+        private final int size;
+        private final Map<String, Integer> ids; // общая с графом (только дописывается)
+
+        private NameTable(String[] names, int size, Map<String, Integer> ids) {
+            this.names = names;
+            this.size = size;
+            this.ids = ids;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public String nameOf(int id) {
+            Objects.checkIndex(id, size);
+            return names[id];
+        }
+
+        /**
+         * id имени (-1, если его нет в снимке).
+         */
+        public int idOf(String v) {
+            Integer id = (v == null) ? null : ids.get(v);
+            return id == null || id >= size ? -1 : id;
+        }
+    }
+
+    /**
+     * Степень вершины по id (0 для удалённой).
+     */
+    public int degreeOfId(int u) {
+        NavigableSet<Edge> row = rowsById.get(u);
+        return row == null ? 0 : row.size();
+    }
+
+    /**
+     * Соседи вершины с id u (по их id) в отсортированном по имени порядке.
+     * Возвращает false, если visitor остановил обход.
+     */
+    public boolean forEachNeighborId(int u, IdNeighborVisitor visitor) {
+        NavigableSet<Edge> row = rowsById.get(u);
+        if (row == null) return true;
+        for (Edge e : row) {
+            if (!visitor.visit(e.toId())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Исходящие дуги по id с весами (для unweighted вес = 1).
+     */
+    public boolean forEachEdgeId(int u, IdEdgeVisitor visitor) {
+        NavigableSet<Edge> row = rowsById.get(u);
+        if (row == null) return true;
+        for (Edge e : row) {
+            if (!visitor.visit(e.toId(), weighted ? e.weight() : 1)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * То же в обратном порядке (для стека итеративного DFS).
+     */
+    public boolean forEachNeighborIdReverse(int u, IdNeighborVisitor visitor) {
+        NavigableSet<Edge> row = rowsById.get(u);
+        if (row == null) return true;
+        Iterator<Edge> it = row.descendingIterator();
+        while (it.hasNext()) {
+            if (!visitor.visit(it.next().toId())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Итератор по id соседей (тот же порядок), для обходов с явным стеком.
+     */
+    public PrimitiveIterator.OfInt neighborIdIterator(int u) {
+        NavigableSet<Edge> row = rowsById.get(u);
+        if (row == null) return java.util.stream.IntStream.empty().iterator();
+        Iterator<Edge> it = row.iterator();
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return it.next().toId();
+            }
+        };
+    }
+
+    /**
+     * Следующий после after сосед u (по id, в том же порядке), after < 0 -> первый; -1, если больше нет.
+     * O(log deg): курсор обхода — просто id последнего соседа, без объекта-итератора на кадр.
+     */
+    public int nextNeighborId(int u, int after) {
+        NavigableSet<Edge> row = rowsById.get(u);
+        if (row == null || row.isEmpty()) return -1;
+        Edge e = (after < 0) ? row.first() : row.higher(new Edge(nameOf(after), null));
+        return e == null ? -1 : e.toId();
+    }
+
+    /**
+     * Входящие соседи по id (для DIRECTED нужен trackIncoming, иначе IllegalStateException).
+     */
+    public boolean forEachInNeighborId(int v, IdNeighborVisitor visitor) {
+        if (!isDirected()) return forEachNeighborId(v, visitor);
+        if (radj == null) throw new IllegalStateException("Incoming index is not enabled for this graph");
+        if (rowsById.get(v) == null) return true;
+        for (String u : radj.get(names[v])) {
+            if (!visitor.visit(ids.get(u))) return false;
+        }
+        return true;
+    }
+
     /**
      * Количество сохранённых дуг.
      * В UNDIRECTED каждое ребро хранится дважды (u->v и v->u).
@@ -63,6 +361,95 @@ public class Graph {
         return res;
     }
 
+    /**
+     * Степень вершины (кол-во исходящих дуг), 0 если вершины нет.
+     */
+    public int degree(String u) {
+        if (!containsVertex(u)) return 0;
+        return adj.get(u).size();
+    }
+
+    /**
+     * Обход соседей без копирования в список (в отсортированном порядке).
+     * Возвращает false, если visitor остановил обход.
+     */
+    public boolean forEachNeighbor(String u, NeighborVisitor visitor) {
+        if (!containsVertex(u)) return true;
+        for (Edge e : adj.get(u)) {
+            if (!visitor.visit(e.to())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * То же, но в обратном порядке (удобно для стека в итеративном DFS).
+     */
+    public boolean forEachNeighborReverse(String u, NeighborVisitor visitor) {
+        if (!containsVertex(u)) return true;
+        Iterator<Edge> it = adj.get(u).descendingIterator();
+        while (it.hasNext()) {
+            if (!visitor.visit(it.next().to())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Итератор по соседям u в отсортированном порядке (только чтение).
+     * Позволяет продолжить обход с места остановки (DFS с явным стеком).
+     */
+    public Iterator<String> neighborIterator(String u) {
+        if (!containsVertex(u)) return Collections.emptyIterator();
+        Iterator<Edge> it = adj.get(u).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return it.next().to();
+            }
+        };
+    }
+
+    /**
+     * Обход исходящих дуг с весами (для unweighted вес = 1), в отсортированном порядке.
+     */
+    public boolean forEachEdge(String u, EdgeVisitor visitor) {
+        if (!containsVertex(u)) return true;
+        for (Edge e : adj.get(u)) {
+            if (!visitor.visit(e.to(), weighted ? e.weight() : 1)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * true, если доступны входящие соседи (UNDIRECTED всегда, DIRECTED при trackIncoming).
+     */
+    public boolean hasIncomingIndex() {
+        return !isDirected() || radj != null;
+    }
+
+    /**
+     * Обход входящих соседей u -> v в отсортированном порядке.
+     * Для DIRECTED без индекса входящих дуг -> IllegalStateException.
+     */
+    public boolean forEachInNeighbor(String v, NeighborVisitor visitor) {
+        if (!isDirected()) return forEachNeighbor(v, visitor);
+        if (radj == null) throw new IllegalStateException("Incoming index is not enabled for this graph");
+        if (!containsVertex(v)) return true;
+        for (String u : radj.get(v)) {
+            if (!visitor.visit(u)) return false;
+        }
+        return true;
+    }
+
+    // Для CompactGraph: прямой доступ к отсортированным дугам без копирования
+    Set<Edge> edgeSet(String u) {
+        return adj.get(u);
+    }
+
     public void addEdge(String u, String v) {
         addEdge(u, v, null);
     }
@@ -78,45 +465,147 @@ public class Graph {
         addVertex(u);
         addVertex(v);
 
-        boolean added = adj.get(u).add(new Edge(v, w));
-        if (added) edgesStored++;
+        Edge probe = new Edge(v, w, ids.get(v));
+        boolean added = !adj.get(u).contains(probe) && ownRow(u).add(probe);
+        if (added) {
+            edgesStored++;
+            if (radj != null) ownInRow(v).add(u);
+        }
 
         if (!isDirected()) {
-            boolean addedBack = adj.get(v).add(new Edge(u, w));
+            Edge back = new Edge(u, w, ids.get(u));
+            boolean addedBack = !adj.get(v).contains(back) && ownRow(v).add(back);
             if (addedBack) edgesStored++;
+            added |= addedBack;
         }
+        if (added) version++;
+        if (connectivity != null) connectivity.edgeAdded(u, v);
     }
 
     public boolean removeEdge(String u, String v) {
         if (!containsVertex(u) || v == null) return false;
+        checkWritable();
 
-        boolean removed = adj.get(u).removeIf(e -> e.to().equals(v));
-        if (removed) edgesStored--;
+        // сравнение рёбер только по to -> поиск/удаление по пробному Edge за O(log deg)
+        Edge probe = new Edge(v, null);
+        boolean removed = adj.get(u).contains(probe) && ownRow(u).remove(probe);
+        if (removed) {
+            edgesStored--;
+            if (radj != null) ownInRow(v).remove(u);
+        }
 
         if (!isDirected() && containsVertex(v)) {
-            boolean removedBack = adj.get(v).removeIf(e -> e.to().equals(u));
+            Edge back = new Edge(u, null);
+            boolean removedBack = adj.get(v).contains(back) && ownRow(v).remove(back);
             if (removedBack) edgesStored--;
         }
+        if (removed) version++;
+        if (removed && connectivity != null) connectivity.invalidate();
         return removed;
     }
 
+    /**
+     * Удаление вершины со всеми инцидентными дугами.
+     * UNDIRECTED и DIRECTED с trackIncoming: O(deg(v) * log deg) - входящие берутся из индекса;
+     * DIRECTED без индекса: проверяются все строки, O(V log deg).
+     */
     public boolean removeVertex(String v) {
         if (!containsVertex(v)) return false;
+        checkWritable();
 
-        // Удаляем входящие дуги (из других вершин)
-        for (String u : vertices()) {
-            if (!u.equals(v)) {
-                removeEdge(u, v);
+        // Удаляем входящие дуги u -> v
+        Edge probe = new Edge(v, null);
+        if (!isDirected()) {
+            for (Edge e : adj.get(v)) {
+                if (!e.to().equals(v) && ownRow(e.to()).remove(probe)) edgesStored--;
+            }
+        } else if (radj != null) {
+            for (String u : radj.get(v)) {
+                if (!u.equals(v) && ownRow(u).remove(probe)) edgesStored--;
+            }
+        } else {
+            for (String u : adj.keySet()) {
+                if (!u.equals(v) && adj.get(u).contains(probe)) {
+                    ownRow(u).remove(probe);
+                    edgesStored--;
+                }
             }
         }
 
         // Удаляем исходящие дуги (из v)
         edgesStored -= adj.get(v).size();
+        if (radj != null) {
+            for (Edge e : adj.get(v)) {
+                if (!e.to().equals(v)) ownInRow(e.to()).remove(v);
+            }
+            radj.remove(v);
+        }
         adj.remove(v);
+        rowsById.set(ids.get(v), null);
+        version++;
+        if (connectivity != null) connectivity.invalidate();
 
         return true;
     }
 
+    /**
+     * Пакетное удаление вершин, возвращает количество удалённых.
+     * С индексом входящих дуг - по одной за O(deg); без него (DIRECTED) - один общий проход
+     * по всем строкам вместо прохода на каждую вершину.
+     */
+    public int removeVertices(Collection<String> vs) {
+        Set<String> gone = new HashSet<>();
+        for (String v : vs) {
+            if (containsVertex(v)) gone.add(v);
+        }
+        if (gone.isEmpty()) return 0;
+        checkWritable();
+
+        if (hasIncomingIndex()) {
+            for (String v : gone) removeVertex(v);
+            return gone.size();
+        }
+
+        for (String u : adj.keySet()) {
+            if (gone.contains(u)) continue;
+            NavigableSet<Edge> row = adj.get(u);
+            int hits = 0;
+            if (row.size() > gone.size()) {
+                for (String v : gone) {
+                    if (row.contains(new Edge(v, null))) hits++;
+                }
+            } else {
+                for (Edge e : row) {
+                    if (gone.contains(e.to())) hits++;
+                }
+            }
+            if (hits > 0) {
+                ownRow(u).removeIf(e -> gone.contains(e.to()));
+                edgesStored -= hits;
+            }
+        }
+        for (String v : gone) {
+            edgesStored -= adj.get(v).size();
+            adj.remove(v);
+            rowsById.set(ids.get(v), null);
+        }
+        version++;
+        if (connectivity != null) connectivity.invalidate();
+
+        return gone.size();
+    }
+
+    /**
+     * Индекс связности: connected(u, v) / componentOf(u) почти за O(1).
+     * Поддерживается инкрементально при addVertex/addEdge, после удалений перестраивается лениво.
+     */
+    public ConnectivityIndex connectivity() {
+        // снимок читают несколько потоков -> каждому свой индекс (снимок не меняется, индекс не устаревает)
+        if (readOnly) return new ConnectivityIndex(this);
+        if (connectivity == null) connectivity = new ConnectivityIndex(this);
+        return connectivity;
+    }
+
     /**
      * Экспорт матрицы смежности.
      * Для unweighted -> 1/0, для weighted -> вес.
@@ -138,4 +627,257 @@ public class Graph {
         }
         return m;
     }
+
+    /**
+     * Разреженная матрица смежности (CSR, из неё же COO): O(n + m) памяти вместо n*n.
+     * Порядок вершин и значения - как в toAdjMatrix().
+     */
+    public SparseMatrix toSparseMatrix() {
+        return freeze().toSparseMatrix();
+    }
+
+    /**
+     * Битовая матрица смежности (n*n бит, веса игнорируются) - для небольших графов.
+     */
+    public BitMatrix toBitMatrix() {
+        return freeze().toBitMatrix();
+    }
+
+    /**
+     * Снимок графа в компактном CSR-представлении (int id, отсортированные соседи).
+     */
+    public CompactGraph freeze() {
+        return CompactGraph.from(this);
+    }
+
+    /**
+     * Снимок с перенумерацией вершин для локальности памяти (DEGREE, RCM, BFS).
+     * Имена, порядок соседей и результаты алгоритмов - те же, что у freeze().
+     */
+    public CompactGraph freeze(VertexOrder order) {
+        return freeze().reorder(order);
+    }
+
+    /**
+     * Массовая загрузка из CSR (GraphBuilder, CompactGraph.toGraph): строки уже отсортированы,
+     * поэтому TreeMap/TreeSet строятся за линейное время (buildFromSorted), без вставок по одной.
+     * id вершин = id в c (порядок имён).
+     */
+    static Graph fromCompact(CompactGraph c, boolean trackIncoming) {
+        c = c.inNameOrder();
+        Graph g = new Graph(c.isDirected() ? GraphType.DIRECTED : GraphType.UNDIRECTED, c.isWeighted(), trackIncoming);
+        int n = c.vertexCount();
+        List<Map.Entry<String, NavigableSet<Edge>>> rows = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            Edge[] row = new Edge[c.degree(u)];
+            for (int a = c.begin(u), i = 0; a < c.end(u); a++, i++) {
+                int t = c.target(a);
+                row[i] = new Edge(c.name(t), c.isWeighted() ? c.weight(a) : null, t);
+            }
+            NavigableSet<Edge> set = new TreeSet<>(BY_TARGET);
+            set.addAll(new SortedArray<>(row, BY_TARGET));
+            rows.add(new AbstractMap.SimpleImmutableEntry<>(c.name(u), set));
+            g.intern(c.name(u)); // id == u
+            g.rowsById.add(set);
+        }
+        g.adj.putAll(new SortedEntries<>(rows));
+        g.edgesStored = c.edgeCountStored();
+
+        if (g.radj != null) {
+            CompactGraph r = c.reverse(); // строки транспонированного графа тоже отсортированы
+            List<Map.Entry<String, NavigableSet<String>>> in = new ArrayList<>(n);
+            for (int v = 0; v < n; v++) {
+                String[] row = new String[r.degree(v)];
+                for (int a = r.begin(v), i = 0; a < r.end(v); a++, i++) row[i] = r.name(r.target(a));
+                NavigableSet<String> set = new TreeSet<>();
+                set.addAll(new SortedArray<>(row, null));
+                in.add(new AbstractMap.SimpleImmutableEntry<>(c.name(v), set));
+            }
+            g.radj.putAll(new SortedEntries<>(in));
+        }
+        return g;
+    }
+
+    // Отсортированный массив как SortedSet: TreeSet.addAll из него не вставляет по одной, а строит дерево.
+    // Полноценное неизменяемое представление: subSet/headSet/tailSet - диапазоны индексов (бинарный поиск);
+    // ключи вне диапазона представления прижимаются к его границам.
+    private static final class SortedArray<E> extends AbstractSet<E> implements SortedSet<E> {
+        private final E[] items;
+        private final int from, to; // [from, to)
+        private final Comparator<? super E> cmp;
+
+        SortedArray(E[] items, Comparator<? super E> cmp) {
+            this(items, 0, items.length, cmp);
+        }
+
+        private SortedArray(E[] items, int from, int to, Comparator<? super E> cmp) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.cmp = cmp;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(items).subList(from, to)).iterator();
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o == null) return false;
+            @SuppressWarnings("unchecked")
+            E e = (E) o;
+            int i = lowerBound(e);
+            return i < to && compare(items[i], e) == 0;
+        }
+
+        @Override
+        public Comparator<? super E> comparator() {
+            return cmp;
+        }
+
+        @Override
+        public SortedSet<E> subSet(E fromElement, E toElement) {
+            if (compare(fromElement, toElement) > 0) throw new IllegalArgumentException("fromElement > toElement");
+            return new SortedArray<>(items, lowerBound(fromElement), lowerBound(toElement), cmp);
+        }
+
+        @Override
+        public SortedSet<E> headSet(E toElement) {
+            return new SortedArray<>(items, from, lowerBound(toElement), cmp);
+        }
+
+        @Override
+        public SortedSet<E> tailSet(E fromElement) {
+            return new SortedArray<>(items, lowerBound(fromElement), to, cmp);
+        }
+
+        @Override
+        public E first() {
+            if (from == to) throw new NoSuchElementException();
+            return items[from];
+        }
+
+        @Override
+        public E last() {
+            if (from == to) throw new NoSuchElementException();
+            return items[to - 1];
+        }
+
+        // первый индекс в [from, to) с элементом >= key
+        private int lowerBound(E key) {
+            int lo = from, hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(items[mid], key) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(E a, E b) {
+            return cmp != null ? cmp.compare(a, b) : ((Comparable<? super E>) a).compareTo(b);
+        }
+    }
+
+    // То же для TreeMap.putAll: записи, отсортированные по ключу (естественный порядок)
+    private static final class SortedEntries<K extends Comparable<? super K>, V> extends AbstractMap<K, V>
+            implements SortedMap<K, V> {
+        private final List<Map.Entry<K, V>> entries;
+        private final int from, to; // [from, to)
+
+        SortedEntries(List<Map.Entry<K, V>> entries) {
+            this(entries, 0, entries.size());
+        }
+
+        private SortedEntries(List<Map.Entry<K, V>> entries, int from, int to) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return Collections.unmodifiableList(entries.subList(from, to)).iterator();
+                }
+
+                @Override
+                public int size() {
+                    return to - from;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public V get(Object key) {
+            if (key == null) return null;
+            @SuppressWarnings("unchecked")
+            K k = (K) key;
+            int i = lowerBound(k);
+            return i < to && entries.get(i).getKey().compareTo(k) == 0 ? entries.get(i).getValue() : null;
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return null;
+        }
+
+        @Override
+        public SortedMap<K, V> subMap(K fromKey, K toKey) {
+            if (fromKey.compareTo(toKey) > 0) throw new IllegalArgumentException("fromKey > toKey");
+            return new SortedEntries<>(entries, lowerBound(fromKey), lowerBound(toKey));
+        }
+
+        @Override
+        public SortedMap<K, V> headMap(K toKey) {
+            return new SortedEntries<>(entries, from, lowerBound(toKey));
+        }
+
+        @Override
+        public SortedMap<K, V> tailMap(K fromKey) {
+            return new SortedEntries<>(entries, lowerBound(fromKey), to);
+        }
+
+        @Override
+        public K firstKey() {
+            if (from == to) throw new NoSuchElementException();
+            return entries.get(from).getKey();
+        }
+
+        @Override
+        public K lastKey() {
+            if (from == to) throw new NoSuchElementException();
+            return entries.get(to - 1).getKey();
+        }
+
+        // первый индекс в [from, to) с ключом >= key
+        private int lowerBound(K key) {
+            int lo = from, hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (entries.get(mid).getKey().compareTo(key) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Bulk construction of a Graph or CompactGraph: vertices are interned to temporary ints and edges
+ * go into growable int buffers; build() sorts and deduplicates everything once (rows in parallel)
+ * instead of a TreeMap lookup + TreeSet insert per edge.
+ *
+ * The result equals adding the same vertices and edges one by one with Graph.addVertex/addEdge:
+ * same vertex order, rows, weights (first duplicate wins) and edge counts.
+ * Not thread-safe; the builder can be reused and built more than once.
+ */
+public final class GraphBuilder {
+    private final GraphType type;
+    private final boolean weighted;
+    private final boolean trackIncoming;
+
+    private final Map<String, Integer> ids = new HashMap<>();  // name -> temporary id (first-seen order)
+    private final List<String> names = new ArrayList<>();
+    private int[] src = new int[16];
+    private int[] dst = new int[16];
+    private int[] w;
+    private int count;
+
+    public GraphBuilder(GraphType type, boolean weighted) {
+        this(type, weighted, false);
+    }
+
+    /**
+     * trackIncoming: same as in Graph (incoming index for DIRECTED graphs built by build()).
+     */
+    public GraphBuilder(GraphType type, boolean weighted, boolean trackIncoming) {
+        if (type == null) throw new IllegalArgumentException("Graph type cannot be null");
+        this.type = type;
+        this.weighted = weighted;
+        this.trackIncoming = trackIncoming;
+        this.w = weighted ? new int[16] : null;
+    }
+
+    /**
+     * Adds v if missing; returns its builder id for addEdge(int, int) / addEdges.
+     */
+    public int addVertex(String v) {
+        if (v == null) throw new IllegalArgumentException("Vertex cannot be null");
+        Integer id = ids.get(v);
+        if (id == null) {
+            id = names.size();
+            ids.put(v, id);
+            names.add(v);
+        }
+        return id;
+    }
+
+    public GraphBuilder addEdge(String u, String v) {
+        return addEdge(u, v, null);
+    }
+
+    public GraphBuilder addEdge(String u, String v, Integer weight) {
+        if (u == null || v == null) throw new IllegalArgumentException("Vertices cannot be null");
+        checkWeight(weight);
+        int a = addVertex(u), b = addVertex(v);
+        push(a, b, weighted ? weight : 0);
+        return this;
+    }
+
+    /**
+     * Edge between builder ids (as returned by addVertex); weight is ignored for unweighted graphs.
+     */
+    public GraphBuilder addEdge(int u, int v, int weight) {
+        checkId(u);
+        checkId(v);
+        push(u, v, weight);
+        return this;
+    }
+
+    /**
+     * Batch of edges between builder ids: (us[i], vs[i], ws[i]) for i in [0, n).
+     * ws must be null for unweighted graphs and non-null for weighted ones.
+     */
+    public GraphBuilder addEdges(int[] us, int[] vs, int[] ws, int n) {
+        if (weighted != (ws != null)) {
+            throw new IllegalArgumentException(weighted ? "Weighted graph requires weight" : "Unweighted graph must not have weight");
+        }
+        if (n < 0 || n > us.length || n > vs.length || (ws != null && n > ws.length)) {
+            throw new IllegalArgumentException("Bad edge batch size: " + n);
+        }
+        for (int i = 0; i < n; i++) {
+            checkId(us[i]);
+            checkId(vs[i]);
+        }
+        ensureCapacity(count + n);
+        System.arraycopy(us, 0, src, count, n);
+        System.arraycopy(vs, 0, dst, count, n);
+        if (ws != null) System.arraycopy(ws, 0, w, count, n);
+        count += n;
+        return this;
+    }
+
+    public int vertexCount() {
+        return names.size();
+    }
+
+    /**
+     * Edges added so far, duplicates included.
+     */
+    public int edgeCount() {
+        return count;
+    }
+
+    /**
+     * Sorts on all available processors from PARALLEL_EDGES edges on, on the calling thread below that.
+     */
+    public Graph build() {
+        return build(defaultThreads());
+    }
+
+    /**
+     * threads <= 0 -> all available processors.
+     */
+    public Graph build(int threads) {
+        return Graph.fromCompact(buildCompact(threads), trackIncoming);
+    }
+
+    public CompactGraph buildCompact() {
+        return buildCompact(defaultThreads());
+    }
+
+    public CompactGraph buildCompact(int threads) {
+        int n = names.size();
+        String[] sorted = names.toArray(new String[0]);
+        if (threads == 1) Arrays.sort(sorted);
+        else Arrays.parallelSort(sorted);
+
+        int[] remap = new int[n]; // temporary id -> sorted id (== Graph/CompactGraph id)
+        for (int i = 0; i < n; i++) remap[i] = Arrays.binarySearch(sorted, names.get(i));
+        int[] s = new int[count];
+        int[] d = new int[count];
+        for (int i = 0; i < count; i++) {
+            s[i] = remap[src[i]];
+            d[i] = remap[dst[i]];
+        }
+        return CompactGraph.fromArcs(type == GraphType.DIRECTED, weighted, sorted, s, d, w, count, threads);
+    }
+
+    // below this a worker pool costs more than the sorts it would split
+    static final int PARALLEL_EDGES = 1 << 16;
+
+    private int defaultThreads() {
+        return count < PARALLEL_EDGES ? 1 : 0;
+    }
+
+    private void push(int u, int v, int weight) {
+        ensureCapacity(count + 1);
+        src[count] = u;
+        dst[count] = v;
+        if (w != null) w[count] = weight;
+        count++;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= src.length) return;
+        int cap = Math.max(size, src.length * 2);
+        src = Arrays.copyOf(src, cap);
+        dst = Arrays.copyOf(dst, cap);
+        if (w != null) w = Arrays.copyOf(w, cap);
+    }
+
+    private void checkWeight(Integer weight) {
+        if (weighted && weight == null)
+            throw new IllegalArgumentException("Weighted graph requires weight");
+        if (!weighted && weight != null)
+            throw new IllegalArgumentException("Unweighted graph must not have weight");
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= names.size()) throw new IllegalArgumentException("Unknown vertex id: " + id);
+    }
+}
@@ -0,0 +1,9 @@
+package graph;
+
+/**
+ * Callback for Graph.forEachEdgeId: neighbor id + arc weight (1 for unweighted graphs).
+ */
+@FunctionalInterface
+public interface IdEdgeVisitor {
+    boolean visit(int v, int weight);
+}
@@ -0,0 +1,10 @@
+package graph;
+
+/**
+ * Callback for Graph.forEachNeighborId: same as NeighborVisitor, but gets the neighbor's int id
+ * (Graph.idOf), so traversal state can live in int arrays instead of String-keyed maps.
+ */
+@FunctionalInterface
+public interface IdNeighborVisitor {
+    boolean visit(int v);
+}
@@ -0,0 +1,13 @@
+package graph;
+
+/**
+ * Callback for Graph.forEachNeighbor: called once per neighbor, in sorted order.
+ * Return false to stop the iteration early.
+ *
+ * Algorithms keep one visitor instance per traversal (with mutable fields for the
+ * current vertex), so walking adjacency allocates nothing per visited vertex.
+ */
+@FunctionalInterface
+public interface NeighborVisitor {
+    boolean visit(String v);
+}
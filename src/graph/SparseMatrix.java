@@ -0,0 +1,79 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency matrix in CSR form: row i holds colIdx[rowPtr[i] .. rowPtr[i+1]) in ascending order.
+ * Row/column i is vertex labels[i], i.e. the same sorted order as Graph.toAdjMatrix().
+ * Memory is O(n + nnz) instead of the dense n*n.
+ *
+ * values == null means an unweighted graph: every stored entry is 1.
+ */
+public final class SparseMatrix {
+    public final String[] labels;
+    public final int[] rowPtr;   // length n+1
+    public final int[] colIdx;   // length nnz
+    public final int[] values;   // length nnz, or null
+
+    /**
+     * Coordinate (triplet) form: entry k is (row[k], col[k]) = value[k] (1 if value == null),
+     * sorted by row, then column.
+     */
+    public static final class Coo {
+        public final String[] labels;
+        public final int[] row;
+        public final int[] col;
+        public final int[] value;
+
+        Coo(String[] labels, int[] row, int[] col, int[] value) {
+            this.labels = labels;
+            this.row = row;
+            this.col = col;
+            this.value = value;
+        }
+    }
+
+    SparseMatrix(String[] labels, int[] rowPtr, int[] colIdx, int[] values) {
+        this.labels = labels;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+    }
+
+    public int size() {
+        return labels.length;
+    }
+
+    public int nonZeros() {
+        return colIdx.length;
+    }
+
+    /**
+     * Entry (i, j), 0 if not stored. O(log row length).
+     */
+    public int get(int i, int j) {
+        int k = Arrays.binarySearch(colIdx, rowPtr[i], rowPtr[i + 1], j);
+        if (k < 0) return 0;
+        return values == null ? 1 : values[k];
+    }
+
+    public Coo toCoo() {
+        int[] row = new int[colIdx.length];
+        for (int i = 0; i < labels.length; i++) {
+            Arrays.fill(row, rowPtr[i], rowPtr[i + 1], i);
+        }
+        return new Coo(labels, row, colIdx.clone(), values == null ? null : values.clone());
+    }
+
+    /**
+     * Dense form, equal to Graph.toAdjMatrix() (only for small graphs).
+     */
+    public int[][] toDense() {
+        int n = labels.length;
+        int[][] m = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) m[i][colIdx[k]] = values == null ? 1 : values[k];
+        }
+        return m;
+    }
+}
@@ -0,0 +1,117 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Id numbering of a CompactGraph (CompactGraph.reorder, Graph.freeze(VertexOrder)).
+ * Decides which vertices get neighboring ids, i.e. neighboring slots in the CSR arrays and in every
+ * per-vertex array of a traversal. Names, neighbor order and algorithm outputs do not depend on it.
+ *
+ * DIRECTED graphs are ordered along out-arcs. All orders are deterministic (ties by name).
+ */
+public enum VertexOrder {
+    /**
+     * Name order (the default numbering of freeze()).
+     */
+    NAME,
+    /**
+     * Decreasing degree: the hubs most traversals touch share the first cache lines.
+     */
+    DEGREE,
+    /**
+     * Reverse Cuthill-McKee: BFS from a minimum-degree vertex, neighbors by increasing degree,
+     * then reversed. Keeps neighbors' ids close together (small bandwidth).
+     */
+    RCM,
+    /**
+     * BFS order, components rooted in name order: each BFS level gets a contiguous id range.
+     */
+    BFS;
+
+    // perm[newId] = current id of the vertex
+    int[] permutation(CompactGraph g) {
+        int n = g.vertexCount();
+        switch (this) {
+            case NAME: {
+                int[] perm = new int[n];
+                for (int r = 0; r < n; r++) perm[r] = g.idAtRank(r);
+                return perm;
+            }
+            case DEGREE: {
+                long[] keys = new long[n];
+                int maxDegree = 0;
+                for (int u = 0; u < n; u++) maxDegree = Math.max(maxDegree, g.degree(u));
+                for (int u = 0; u < n; u++) keys[u] = degreeKey(g, u, maxDegree - g.degree(u));
+                return idsOf(g, keys, n);
+            }
+            case RCM: {
+                int[] perm = bfs(g, startsByDegree(g), true);
+                for (int i = 0, j = n - 1; i < j; i++, j--) {
+                    int t = perm[i];
+                    perm[i] = perm[j];
+                    perm[j] = t;
+                }
+                return perm;
+            }
+            default: {
+                int[] roots = new int[n];
+                for (int r = 0; r < n; r++) roots[r] = g.idAtRank(r);
+                return bfs(g, roots, false);
+            }
+        }
+    }
+
+    // BFS from roots in the given order (each unvisited one starts a new tree);
+    // byDegree -> a vertex's new neighbors are enqueued by increasing degree, else in row order
+    private static int[] bfs(CompactGraph g, int[] roots, boolean byDegree) {
+        int n = g.vertexCount();
+        int[] queue = new int[n];
+        boolean[] seen = new boolean[n];
+        long[] keys = byDegree ? new long[16] : null;
+        int tail = 0;
+        for (int root : roots) {
+            if (seen[root]) continue;
+            seen[root] = true;
+            int head = tail;
+            queue[tail++] = root;
+            while (head < tail) {
+                int u = queue[head++];
+                int from = tail;
+                for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+                    int v = g.target(a);
+                    if (seen[v]) continue;
+                    seen[v] = true;
+                    queue[tail++] = v;
+                }
+                if (byDegree && tail - from > 1) {
+                    int len = tail - from;
+                    if (keys.length < len) keys = new long[Math.max(len, keys.length * 2)];
+                    for (int i = 0; i < len; i++) keys[i] = degreeKey(g, queue[from + i], g.degree(queue[from + i]));
+                    Arrays.sort(keys, 0, len);
+                    for (int i = 0; i < len; i++) queue[from + i] = g.idAtRank((int) keys[i]);
+                }
+            }
+        }
+        return queue;
+    }
+
+    // all vertices by increasing degree (ties by name): RCM starts each component at a low-degree vertex
+    private static int[] startsByDegree(CompactGraph g) {
+        int n = g.vertexCount();
+        long[] keys = new long[n];
+        for (int u = 0; u < n; u++) keys[u] = degreeKey(g, u, g.degree(u));
+        return idsOf(g, keys, n);
+    }
+
+    // (primary, name rank) packed so that sorting longs sorts by primary, then by name
+    private static long degreeKey(CompactGraph g, int u, int primary) {
+        return ((long) primary << 32) | g.rank(u);
+    }
+
+    private static int[] idsOf(CompactGraph g, long[] keys, int n) {
+        Arrays.sort(keys, 0, n);
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = g.idAtRank((int) keys[i]);
+        return ids;
+    }
+}
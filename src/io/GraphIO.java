@@ -1,10 +1,17 @@
 package io;
 
+import algorithms.ReachabilityIndex;
+import graph.CompactGraph;
 import graph.Graph;
+import graph.GraphBuilder;
 import graph.GraphType;
 
 import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 public class GraphIO {
 
@@ -14,6 +21,7 @@ public class GraphIO {
      * next m lines: u v [w]
      *
      * Vertices are assumed to be 0..n-1 (ints), stored as strings.
+     * Edges go through a GraphBuilder (one sort instead of a TreeSet insert per edge, parallel on large inputs).
      */
     public static Graph readEdgeList(Reader reader) throws IOException {
         BufferedReader br = new BufferedReader(reader);
@@ -29,28 +37,47 @@ public class GraphIO {
         int directed = Integer.parseInt(h[2]);
         int weighted = Integer.parseInt(h[3]);
 
-        Graph g = new Graph(directed == 1 ? GraphType.DIRECTED : GraphType.UNDIRECTED, weighted == 1);
+        return readEdges(br, n, m, directed == 1, weighted == 1).build();
+    }
+
+    /**
+     * Same format and checks as readEdgeList, but builds a CompactGraph directly.
+     */
+    public static CompactGraph readCompactEdgeList(Reader reader) throws IOException {
+        BufferedReader br = new BufferedReader(reader);
 
-        // ensure isolated vertices exist
-        for (int i = 0; i < n; i++) g.addVertex(String.valueOf(i));
+        String header = nextNonEmptyLine(br);
+        if (header == null) throw new IllegalArgumentException("Empty input");
+
+        String[] h = header.trim().split("\\s+");
+        if (h.length < 4) throw new IllegalArgumentException("Header must be: n m directed weighted");
+
+        int n = Integer.parseInt(h[0]);
+        int m = Integer.parseInt(h[1]);
+        boolean directed = Integer.parseInt(h[2]) == 1;
+        boolean weighted = Integer.parseInt(h[3]) == 1;
+
+        return readEdges(br, n, m, directed, weighted).buildCompact();
+    }
+
+    // Edge lines into a GraphBuilder (vertices 0..n-1 first, so isolated ones exist)
+    private static GraphBuilder readEdges(BufferedReader br, int n, int m, boolean directed, boolean weighted)
+            throws IOException {
+        GraphBuilder b = new GraphBuilder(directed ? GraphType.DIRECTED : GraphType.UNDIRECTED, weighted);
+        for (int i = 0; i < n; i++) b.addVertex(String.valueOf(i));
 
         for (int i = 0; i < m; i++) {
             String line = nextNonEmptyLine(br);
             if (line == null) throw new IllegalArgumentException("Expected " + m + " edges, got " + i);
             String[] p = line.trim().split("\\s+");
-            if ((!g.isWeighted() && p.length < 2) || (g.isWeighted() && p.length < 3)) {
+            if ((!weighted && p.length < 2) || (weighted && p.length < 3)) {
                 throw new IllegalArgumentException("Bad edge line: " + line);
             }
-            String u = p[0];
-            String v = p[1];
-            if (g.isWeighted()) {
-                int w = Integer.parseInt(p[2]);
-                g.addEdge(u, v, w);
-            } else {
-                g.addEdge(u, v);
-            }
+            int u = b.addVertex(p[0]);
+            int v = b.addVertex(p[1]);
+            b.addEdge(u, v, weighted ? Integer.parseInt(p[2]) : 0);
         }
-        return g;
+        return b;
     }
 
     private static String nextNonEmptyLine(BufferedReader br) throws IOException {
@@ -67,4 +94,180 @@ public class GraphIO {
             return readEdgeList(fr);
         }
     }
+
+    /**
+     * Fast loader for large edge-list files: memory-mapped, byte-level parsing (no regex,
+     * no Strings per token), optionally split into chunks parsed by 'threads' workers.
+     * Same header, comments and error messages as readEdgeList; vertex ids must be plain
+     * non-negative ints (as in the documented format).
+     */
+    public static CompactGraph readEdgeListMapped(String path, int threads) throws IOException {
+        return MappedEdgeListReader.read(Path.of(path), threads);
+    }
+
+    /**
+     * Binary snapshot (see GraphSnapshot for the layout): header with flags/counts,
+     * vertex dictionary, offsets/targets/weights arrays and a CRC32 checksum.
+     * A reordered graph is stored in name order (reorder() again after loading).
+     */
+    public static void writeSnapshot(CompactGraph g, String path) throws IOException {
+        GraphSnapshot.write(g.inNameOrder(), Path.of(path));
+    }
+
+    /**
+     * Memory-maps a snapshot written by writeSnapshot and returns a ready CompactGraph (sections are
+     * copied to the heap). A corrupted file -> IllegalArgumentException, also with verifyChecksum = false.
+     */
+    public static CompactGraph readSnapshot(String path) throws IOException {
+        return readSnapshot(path, true);
+    }
+
+    public static CompactGraph readSnapshot(String path, boolean verifyChecksum) throws IOException {
+        return GraphSnapshot.read(Path.of(path), verifyChecksum);
+    }
+
+    private static final int INDEX_MAGIC = 0x52494458; // "RIDX"
+
+    /**
+     * Reachability index file: int magic 'RIDX', the index (ReachabilityIndex.write), long CRC32
+     * of everything before it. The graph is not included: store it with writeSnapshot.
+     */
+    public static void writeReachabilityIndex(ReachabilityIndex index, String path) throws IOException {
+        CRC32 crc = new CRC32();
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(path), 1 << 16)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(os, crc));
+            out.writeInt(INDEX_MAGIC);
+            index.write(out);
+            out.flush();
+            new DataOutputStream(os).writeLong(crc.getValue());
+        }
+    }
+
+    /**
+     * Loads an index written by writeReachabilityIndex for graph g (e.g. from readSnapshot);
+     * IllegalArgumentException if the file is corrupted or was built for another graph.
+     * The index is bound to no Graph: ReachabilityIndex.bind(Graph) re-checks and binds it.
+     */
+    public static ReachabilityIndex readReachabilityIndex(CompactGraph g, String path) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream is = new BufferedInputStream(new FileInputStream(path), 1 << 16)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(is, crc));
+            ReachabilityIndex index;
+            try {
+                if (in.readInt() != INDEX_MAGIC) throw new IllegalArgumentException("Not a reachability index: " + path);
+                index = ReachabilityIndex.read(in, g);
+                long expected = crc.getValue();
+                if (new DataInputStream(is).readLong() != expected || is.read() != -1) {
+                    throw new IllegalArgumentException("Reachability index checksum mismatch: " + path);
+                }
+            } catch (EOFException | NegativeArraySizeException e) {
+                throw new IllegalArgumentException("Corrupted reachability index: " + path);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Streams the adjacency matrix to a Matrix Market coordinate file, row by row: only the
+     * vertex index is kept in memory, never the matrix. Rows/columns are 1-based positions in
+     * sorted vertex order (as in toAdjMatrix); the labels are listed in "% i name" comments.
+     * UNDIRECTED -> "symmetric" (lower triangle only), DIRECTED -> "general";
+     * unweighted -> "pattern" (no values), weighted -> "integer".
+     */
+    public static void writeMatrixMarket(Graph g, String path) throws IOException {
+        try (Writer w = new BufferedWriter(new FileWriter(path), 1 << 16)) {
+            writeMatrixMarket(g, w);
+        }
+    }
+
+    public static void writeMatrixMarket(Graph g, Writer out) throws IOException {
+        List<String> verts = g.vertices();
+        Map<String, Integer> idx = new HashMap<>(verts.size() * 2);
+        for (int i = 0; i < verts.size(); i++) idx.put(verts.get(i), i);
+        boolean symmetric = !g.isDirected();
+
+        long nnz = 0;
+        for (int i = 0; i < verts.size(); i++) {
+            if (!symmetric) {
+                nnz += g.degree(verts.get(i));
+                continue;
+            }
+            int row = i;
+            long[] lower = {0};
+            g.forEachNeighbor(verts.get(i), v -> idx.get(v) <= row && ++lower[0] > 0);
+            nnz += lower[0];
+        }
+        writeMatrixMarketHeader(out, verts, g.isWeighted(), symmetric, nnz);
+
+        try {
+            for (int i = 0; i < verts.size(); i++) {
+                String prefix = (i + 1) + " ";
+                int row = i;
+                g.forEachEdge(verts.get(i), (v, weight) -> {
+                    int col = idx.get(v);
+                    if (symmetric && col > row) return false; // sorted row -> rest is upper triangle
+                    writeEntry(out, prefix, col, g.isWeighted(), weight);
+                    return true;
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    public static void writeMatrixMarket(CompactGraph g, String path) throws IOException {
+        try (Writer w = new BufferedWriter(new FileWriter(path), 1 << 16)) {
+            writeMatrixMarket(g, w);
+        }
+    }
+
+    public static void writeMatrixMarket(CompactGraph g, Writer out) throws IOException {
+        g = g.inNameOrder(); // rows/columns in name order, like the Graph version
+        int n = g.vertexCount();
+        boolean symmetric = !g.isDirected();
+        long nnz = 0;
+        for (int u = 0; u < n; u++) {
+            for (int a = g.begin(u), end = g.end(u); a < end; a++) {
+                if (!symmetric || g.target(a) <= u) nnz++;
+            }
+        }
+        writeMatrixMarketHeader(out, g.vertices(), g.isWeighted(), symmetric, nnz);
+
+        for (int u = 0; u < n; u++) {
+            String prefix = (u + 1) + " ";
+            for (int a = g.begin(u), end = g.end(u); a < end && (!symmetric || g.target(a) <= u); a++) {
+                writeEntry(out, prefix, g.target(a), g.isWeighted(), g.weight(a));
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeMatrixMarketHeader(Writer out, List<String> labels, boolean weighted,
+                                                boolean symmetric, long nnz) throws IOException {
+        out.write("%%MatrixMarket matrix coordinate " + (weighted ? "integer" : "pattern")
+                + (symmetric ? " symmetric" : " general") + "\n");
+        for (int i = 0; i < labels.size(); i++) out.write("% " + (i + 1) + " " + labels.get(i) + "\n");
+        out.write(labels.size() + " " + labels.size() + " " + nnz + "\n");
+    }
+
+    private static void writeEntry(Writer out, String rowPrefix, int col, boolean weighted, int weight) {
+        try {
+            out.write(rowPrefix);
+            out.write(Integer.toString(col + 1));
+            if (weighted) {
+                out.write(' ');
+                out.write(Integer.toString(weight));
+            }
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static CompactGraph readCompactEdgeListFromFile(String path) throws IOException {
+        try (FileReader fr = new FileReader(path)) {
+            return readCompactEdgeList(fr);
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package io;
+
+import graph.CompactGraph;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Versioned binary snapshot of a CompactGraph (used by GraphIO.writeSnapshot / readSnapshot).
+ *
+ * Layout (big-endian):
+ *   int magic 'GSNP', int version, int flags (1 = directed, 2 = weighted), int n, int arcs,
+ *   long namesBytes
+ *   n x (int length, UTF-8 bytes)   vertex names in id order, zero padded to namesBytes (multiple of 4)
+ *   int[n+1] offsets, int[arcs] targets, [int[arcs] weights]
+ *   long CRC32 of everything above
+ */
+final class GraphSnapshot {
+
+    static final int MAGIC = 0x47534E50; // "GSNP"
+    static final int VERSION = 1;
+
+    private static final int HEADER = 28;
+    private static final long WINDOW = 1L << 30; // mapped in <= 1 GB windows (MappedByteBuffer is int-indexed)
+
+    private static final int DIRECTED = 1;
+    private static final int WEIGHTED = 2;
+
+    private GraphSnapshot() {
+    }
+
+    static void write(CompactGraph g, Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(os, crc));
+            int n = g.vertexCount();
+            int arcs = g.edgeCountStored();
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt((g.isDirected() ? DIRECTED : 0) | (g.isWeighted() ? WEIGHTED : 0));
+            out.writeInt(n);
+            out.writeInt(arcs);
+
+            byte[][] encoded = new byte[n][];
+            long namesBytes = 0;
+            for (int v = 0; v < n; v++) {
+                encoded[v] = g.name(v).getBytes(StandardCharsets.UTF_8);
+                namesBytes += 4 + encoded[v].length;
+            }
+            long padded = (namesBytes + 3) & ~3L;
+            out.writeLong(padded);
+            for (byte[] b : encoded) {
+                out.writeInt(b.length);
+                out.write(b);
+            }
+            for (long pad = padded - namesBytes; pad > 0; pad--) out.writeByte(0);
+
+            for (int v = 0; v < n; v++) out.writeInt(g.begin(v));
+            out.writeInt(arcs);
+            for (int a = 0; a < arcs; a++) out.writeInt(g.target(a));
+            if (g.isWeighted()) {
+                for (int a = 0; a < arcs; a++) out.writeInt(g.weight(a));
+            }
+
+            out.flush();
+            // checksum itself is not part of the checksum
+            new DataOutputStream(os).writeLong(crc.getValue());
+        }
+    }
+
+    /**
+     * Maps the file and copies every section into heap arrays (bulk IntBuffer reads, no per-edge
+     * objects): CompactGraph works on int[]/String[], so queries are not served from the mapping,
+     * which is dropped once the copy is done. verify = true -> CRC32 over the whole file is checked
+     * first; either way the structure is validated (CompactGraph.of), so a damaged file is an
+     * IllegalArgumentException, never an out-of-range id later.
+     */
+    static CompactGraph read(Path path, boolean verify) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER + 8) throw new IllegalArgumentException("Not a graph snapshot: " + path);
+
+            MappedByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (head.getInt(0) != MAGIC) throw new IllegalArgumentException("Not a graph snapshot: " + path);
+            int version = head.getInt(4);
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+
+            int flags = head.getInt(8);
+            int n = head.getInt(12);
+            int arcs = head.getInt(16);
+            long namesBytes = head.getLong(20);
+            boolean weighted = (flags & WEIGHTED) != 0;
+
+            long expected = HEADER + namesBytes + 4L * (n + 1) + 4L * arcs * (weighted ? 2 : 1) + 8;
+            if (n < 0 || arcs < 0 || namesBytes < 0 || namesBytes > Integer.MAX_VALUE || size != expected) {
+                throw new IllegalArgumentException("Corrupted graph snapshot: " + path);
+            }
+
+            if (verify) {
+                CRC32 crc = new CRC32();
+                for (long p = 0; p < size - 8; p += WINDOW) {
+                    crc.update(ch.map(FileChannel.MapMode.READ_ONLY, p, Math.min(WINDOW, size - 8 - p)));
+                }
+                long stored = ch.map(FileChannel.MapMode.READ_ONLY, size - 8, 8).getLong();
+                if (crc.getValue() != stored) throw new IllegalArgumentException("Snapshot checksum mismatch: " + path);
+            }
+
+            MappedByteBuffer nb = ch.map(FileChannel.MapMode.READ_ONLY, HEADER, namesBytes);
+            String[] names = new String[n];
+            byte[] tmp = new byte[64];
+            for (int v = 0; v < n; v++) {
+                int len = nb.remaining() < 4 ? -1 : nb.getInt();
+                if (len < 0 || len > nb.remaining()) throw new IllegalArgumentException("Corrupted graph snapshot: " + path);
+                if (len > tmp.length) tmp = new byte[Math.max(len, tmp.length * 2)];
+                nb.get(tmp, 0, len);
+                names[v] = new String(tmp, 0, len, StandardCharsets.UTF_8);
+            }
+
+            long pos = HEADER + namesBytes;
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[arcs];
+            int[] weights = weighted ? new int[arcs] : null;
+            pos = readInts(ch, pos, offsets);
+            pos = readInts(ch, pos, targets);
+            if (weighted) readInts(ch, pos, weights);
+
+            return CompactGraph.of((flags & DIRECTED) != 0, weighted, names, offsets, targets, weights);
+        }
+    }
+
+    // bulk copy of dst.length ints starting at file position pos; returns the position after them
+    private static long readInts(FileChannel ch, long pos, int[] dst) throws IOException {
+        int done = 0;
+        while (done < dst.length) {
+            int count = (int) Math.min(dst.length - done, WINDOW / 4);
+            ch.map(FileChannel.MapMode.READ_ONLY, pos, 4L * count).asIntBuffer().get(dst, done, count);
+            done += count;
+            pos += 4L * count;
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,319 @@
+package io;
+
+import graph.CompactGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Byte-level edge-list parser over memory-mapped file chunks (used by GraphIO.readEdgeListMapped).
+ *
+ * Same format, comment skipping and error messages as GraphIO.readEdgeList, but:
+ * - no regex / no per-token Strings: ids and weights are parsed straight from bytes;
+ * - the edge section can be split into line-aligned chunks parsed in parallel;
+ * - the result is bulk-built as a CompactGraph (one counting sort, no per-edge inserts).
+ *
+ * Vertex ids must be non-negative decimal ints without leading zeros (as written by GraphIO).
+ */
+final class MappedEdgeListReader {
+
+    private static final long MAX_CHUNK = 1L << 30; // MappedByteBuffer is int-indexed
+
+    private MappedEdgeListReader() {
+    }
+
+    static CompactGraph read(Path path, int threads) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+
+            // header: first non-empty, non-comment line
+            long pos = 0;
+            String header = null;
+            while (pos < size) {
+                long end = lineEnd(ch, pos, size);
+                String line = readLine(ch, pos, end).trim();
+                pos = Math.min(size, end + 1);
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    header = line;
+                    break;
+                }
+            }
+            if (header == null) throw new IllegalArgumentException("Empty input");
+
+            String[] h = header.split("\\s+"); // one line per file, fine to split
+            if (h.length < 4) throw new IllegalArgumentException("Header must be: n m directed weighted");
+            int n = Integer.parseInt(h[0]);
+            int m = Integer.parseInt(h[1]);
+            boolean directed = Integer.parseInt(h[2]) == 1;
+            boolean weighted = Integer.parseInt(h[3]) == 1;
+
+            // split the edge section into line-aligned chunks
+            long body = size - pos;
+            int chunks = (int) Math.max(Math.max(1, threads), (body + MAX_CHUNK - 1) / MAX_CHUNK);
+            long[] bounds = new long[chunks + 1];
+            bounds[0] = pos;
+            bounds[chunks] = size;
+            for (int i = 1; i < chunks; i++) {
+                long p = Math.max(bounds[i - 1], pos + body / chunks * i);
+                bounds[i] = (p >= size) ? size : Math.min(size, lineEnd(ch, p, size) + 1);
+            }
+
+            Chunk[] parts = new Chunk[chunks];
+            if (chunks == 1 || threads <= 1) {
+                for (int i = 0; i < chunks; i++) parts[i] = parse(ch, bounds[i], bounds[i + 1], weighted);
+            } else {
+                ExecutorService pool = Executors.newFixedThreadPool(threads);
+                try {
+                    List<Future<Chunk>> fs = new ArrayList<>();
+                    for (int i = 0; i < chunks; i++) {
+                        long from = bounds[i], to = bounds[i + 1];
+                        fs.add(pool.submit(() -> parse(ch, from, to, weighted)));
+                    }
+                    for (int i = 0; i < chunks; i++) parts[i] = fs.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                } catch (ExecutionException e) {
+                    Throwable c = e.getCause();
+                    if (c instanceof IOException) throw (IOException) c;
+                    if (c instanceof RuntimeException) throw (RuntimeException) c;
+                    throw new IOException(c);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            return build(parts, n, m, directed, weighted);
+        }
+    }
+
+    // ---------- assembling ----------
+
+    private static CompactGraph build(Chunk[] parts, int n, int m, boolean directed, boolean weighted) {
+        // only the first m edges count (like readEdgeList); errors after them are never reached
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        int[] w = weighted ? new int[m] : null;
+        int got = 0;
+        for (Chunk c : parts) {
+            int take = Math.min(c.count, m - got);
+            System.arraycopy(c.src, 0, src, got, take);
+            System.arraycopy(c.dst, 0, dst, got, take);
+            if (weighted) System.arraycopy(c.w, 0, w, got, take);
+            got += take;
+            if (got < m && c.error != null) throw c.error;
+            if (got == m) break;
+        }
+        if (got < m) throw new IllegalArgumentException("Expected " + m + " edges, got " + got);
+
+        // distinct ids: 0..n-1 plus every endpoint (memory follows n + m, not the largest id)
+        int[] ids = new int[Math.addExact(n, Math.multiplyExact(2, m))];
+        for (int i = 0; i < n; i++) ids[i] = i;
+        System.arraycopy(src, 0, ids, n, m);
+        System.arraycopy(dst, 0, ids, n + m, m);
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) ids[distinct++] = ids[i];
+        }
+
+        // Graph orders vertices as Strings ("10" < "2"): sort by a key that compares like the decimal string
+        long[] keys = new long[distinct];
+        for (int i = 0; i < distinct; i++) keys[i] = decimalKey(ids[i]);
+        Arrays.sort(keys);
+        int[] rank = new int[distinct]; // position in ids -> vertex id
+        String[] names = new String[distinct];
+        for (int r = 0; r < distinct; r++) {
+            int id = fromDecimalKey(keys[r]);
+            rank[Arrays.binarySearch(ids, 0, distinct, id)] = r;
+            names[r] = Integer.toString(id);
+        }
+
+        for (int i = 0; i < m; i++) {
+            src[i] = rank[Arrays.binarySearch(ids, 0, distinct, src[i])];
+            dst[i] = rank[Arrays.binarySearch(ids, 0, distinct, dst[i])];
+        }
+        return CompactGraph.fromArcs(directed, weighted, names, src, dst, w, m);
+    }
+
+    private static final long[] POW10 = new long[11];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+
+    // digits left-aligned to 10 places, then the length: "1" < "10" < "100" < "11" < "2"
+    private static long decimalKey(int x) {
+        int len = 1;
+        while (len < 10 && x >= POW10[len]) len++;
+        return (x * POW10[10 - len]) << 4 | len;
+    }
+
+    private static int fromDecimalKey(long key) {
+        int len = (int) (key & 15);
+        return (int) ((key >>> 4) / POW10[10 - len]);
+    }
+
+    // ---------- parsing one chunk ----------
+
+    private static final class Chunk {
+        int[] src = new int[1024];
+        int[] dst = new int[1024];
+        int[] w;
+        int count;
+        RuntimeException error; // first bad line in this chunk (stop parsing there; build() decides)
+
+        Chunk(boolean weighted) {
+            if (weighted) w = new int[1024];
+        }
+
+        void add(int u, int v, int weight) {
+            if (count == src.length) {
+                int cap = src.length * 2;
+                src = Arrays.copyOf(src, cap);
+                dst = Arrays.copyOf(dst, cap);
+                if (w != null) w = Arrays.copyOf(w, cap);
+            }
+            src[count] = u;
+            dst[count] = v;
+            if (w != null) w[count] = weight;
+            count++;
+        }
+    }
+
+    private static Chunk parse(FileChannel ch, long from, long to, boolean weighted) throws IOException {
+        Chunk c = new Chunk(weighted);
+        if (to <= from) return c;
+
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        int limit = buf.limit();
+        int p = 0;
+        while (p < limit) {
+            int lineStart = p;
+            int lineEnd = p;
+            while (lineEnd < limit && buf.get(lineEnd) != '\n') lineEnd++;
+            p = lineEnd + 1;
+
+            // trim (same as String.trim: everything <= ' ')
+            int s = lineStart, e = lineEnd;
+            while (s < e && (buf.get(s) & 0xff) <= ' ') s++;
+            while (e > s && (buf.get(e - 1) & 0xff) <= ' ') e--;
+            if (s == e || buf.get(s) == '#') continue;
+
+            // u
+            int q = s;
+            int uEnd = tokenEnd(buf, q, e);
+            int u = parseId(buf, q, uEnd);
+            q = skipSpace(buf, uEnd, e);
+            // v
+            int vEnd = tokenEnd(buf, q, e);
+            int v = (q < e) ? parseId(buf, q, vEnd) : -1;
+            q = skipSpace(buf, vEnd, e);
+
+            if (u < 0 || v < 0 || (weighted && q >= e)) {
+                c.error = new IllegalArgumentException("Bad edge line: " + text(buf, s, e));
+                return c;
+            }
+
+            int weight = 0;
+            if (weighted) {
+                int wEnd = tokenEnd(buf, q, e);
+                try {
+                    weight = parseWeight(buf, q, wEnd);
+                } catch (NumberFormatException ex) {
+                    c.error = ex; // raised only if this line is one of the first m edges
+                    return c;
+                }
+            }
+            c.add(u, v, weight);
+        }
+        return c;
+    }
+
+    private static int tokenEnd(ByteBuffer buf, int p, int end) {
+        while (p < end && (buf.get(p) & 0xff) > ' ') p++;
+        return p;
+    }
+
+    private static int skipSpace(ByteBuffer buf, int p, int end) {
+        while (p < end && (buf.get(p) & 0xff) <= ' ') p++;
+        return p;
+    }
+
+    // canonical non-negative int (no sign, no leading zeros) or -1
+    private static int parseId(ByteBuffer buf, int from, int to) {
+        if (from >= to || to - from > 10) return -1;
+        if (buf.get(from) == '0' && to - from > 1) return -1;
+        long x = 0;
+        for (int i = from; i < to; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            x = x * 10 + d;
+        }
+        return x > Integer.MAX_VALUE ? -1 : (int) x;
+    }
+
+    // Integer.parseInt semantics (optional sign, overflow -> NumberFormatException)
+    private static int parseWeight(ByteBuffer buf, int from, int to) {
+        int i = from;
+        boolean neg = false;
+        byte first = buf.get(i);
+        if (first == '-' || first == '+') {
+            neg = first == '-';
+            i++;
+        }
+        if (i >= to || to - i > 10) throw badNumber(buf, from, to);
+        long x = 0;
+        for (; i < to; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) throw badNumber(buf, from, to);
+            x = x * 10 + d;
+        }
+        if (neg) x = -x;
+        if (x < Integer.MIN_VALUE || x > Integer.MAX_VALUE) throw badNumber(buf, from, to);
+        return (int) x;
+    }
+
+    private static NumberFormatException badNumber(ByteBuffer buf, int from, int to) {
+        return new NumberFormatException("For input string: \"" + text(buf, from, to) + "\"");
+    }
+
+    private static String text(ByteBuffer buf, int from, int to) {
+        byte[] b = new byte[to - from];
+        for (int i = 0; i < b.length; i++) b[i] = buf.get(from + i);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    // ---------- small helpers on the raw channel (header / chunk boundaries) ----------
+
+    // position of the next '\n' at or after pos, or size
+    private static long lineEnd(FileChannel ch, long pos, long size) throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(8192);
+        while (pos < size) {
+            bb.clear();
+            int r = ch.read(bb, pos);
+            if (r <= 0) break;
+            for (int i = 0; i < r; i++) {
+                if (bb.get(i) == '\n') return pos + i;
+            }
+            pos += r;
+        }
+        return size;
+    }
+
+    private static String readLine(FileChannel ch, long from, long to) throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate((int) Math.min(to - from, Integer.MAX_VALUE - 8));
+        while (bb.hasRemaining()) {
+            if (ch.read(bb, from + bb.position()) <= 0) break;
+        }
+        return new String(bb.array(), 0, bb.position(), StandardCharsets.UTF_8);
+    }
+}